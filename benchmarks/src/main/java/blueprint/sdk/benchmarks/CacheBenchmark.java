@@ -0,0 +1,94 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.util.cache.Cache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Cache} get/put with hit/miss mixes
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+    private static final int KEYS = 1 << 16;
+
+    /**
+     * percentage of gets for cached keys
+     */
+    @Param({"100", "90", "50"})
+    public int hitRatio;
+
+    private Cache<String> cache;
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        cache = new Cache<>(KEYS, 0);
+
+        // cached keys first, then missing keys
+        int cached = KEYS * hitRatio / 100;
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            if (i < cached) {
+                cache.put(keys[i], "value-" + i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.dispose();
+    }
+
+    @Benchmark
+    public String get() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public String put() {
+        int index = ThreadLocalRandom.current().nextInt(KEYS);
+        return cache.put(keys[index], keys[index]);
+    }
+
+    /**
+     * 90% get, 10% put
+     */
+    @Benchmark
+    public String mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(KEYS);
+
+        String result;
+        if (random.nextInt(10) == 0) {
+            result = cache.put(keys[index], keys[index]);
+        } else {
+            result = cache.get(keys[index]);
+        }
+
+        return result;
+    }
+}
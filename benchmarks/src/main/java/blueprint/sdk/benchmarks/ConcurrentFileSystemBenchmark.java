@@ -0,0 +1,110 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.core.filesystem.ConcurrentFileSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * read/write contention of {@link ConcurrentFileSystem} over a small set of files<br>
+ * <br>
+ * readHeavy and hotRead show how much reads of same files run in parallel.
+ * Compare results before and after a change of path locking.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConcurrentFileSystemBenchmark {
+    private static final int FILES = 16;
+
+    @Param({"1024", "65536"})
+    public int fileSize;
+
+    private ConcurrentFileSystem fileSystem;
+    private File dir;
+    private String[] paths;
+    private byte[] contents;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        fileSystem = new ConcurrentFileSystem();
+        dir = Files.createTempDirectory("cfs").toFile();
+
+        contents = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(contents);
+
+        paths = new String[FILES];
+        for (int i = 0; i < FILES; i++) {
+            paths[i] = new File(dir, "file-" + i).getAbsolutePath();
+            fileSystem.writeToFile(paths[i], contents, false);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (String path : paths) {
+            fileSystem.deleteFile(path);
+        }
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+
+        fileSystem.dispose();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public byte[] read() throws IOException {
+        return fileSystem.readFile(paths[ThreadLocalRandom.current().nextInt(FILES)]);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void write() throws IOException {
+        fileSystem.writeToFile(paths[ThreadLocalRandom.current().nextInt(FILES)], contents, false);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(7)
+    public byte[] readMostly() throws IOException {
+        return fileSystem.readFile(paths[ThreadLocalRandom.current().nextInt(FILES)]);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public void writeRarely() throws IOException {
+        fileSystem.writeToFile(paths[ThreadLocalRandom.current().nextInt(FILES)], contents, false);
+    }
+
+    @Benchmark
+    @Group("hotRead")
+    @GroupThreads(4)
+    public byte[] readHot() throws IOException {
+        return fileSystem.readFile(paths[0]);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.util.id.IdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IdGenerator#randomBase64UUID()} with contention
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    @Benchmark
+    @Threads(1)
+    public String single() {
+        return IdGenerator.randomBase64UUID();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String contended() {
+        return IdGenerator.randomBase64UUID();
+    }
+}
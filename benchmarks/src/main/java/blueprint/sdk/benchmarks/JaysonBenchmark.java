@@ -0,0 +1,61 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.core.jayson.Jayson;
+import blueprint.sdk.core.jayson.JaysonException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * path lookups of {@link Jayson#json(String)}
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JaysonBenchmark {
+    private static final String JSON = "{\"profile\":{\"name\":\"lempel\",\"characters\":{\"simon\":{\"id\":\"simon's id\","
+            + "\"items\":[{\"name\":\"item_1\"},{\"name\":\"item_2\"},{\"name\":\"item_3\"}]}}}}";
+
+    private Jayson jayson;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        jayson = Jayson.parse(JSON);
+        jayson.let("name", "simon");
+        jayson.let("i", 2);
+    }
+
+    @Benchmark
+    public Object shallow() throws JaysonException {
+        return jayson.json("profile.name");
+    }
+
+    @Benchmark
+    public Object deep() throws JaysonException {
+        return jayson.json("profile.characters.simon.items.2.name");
+    }
+
+    @Benchmark
+    public Object variables() throws JaysonException {
+        return jayson.json("profile.characters.{name}.items.{i}.name");
+    }
+}
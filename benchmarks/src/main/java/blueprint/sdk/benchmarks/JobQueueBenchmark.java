@@ -0,0 +1,96 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.core.concurrent.JobQueue;
+import blueprint.sdk.core.concurrent.PriorityJobQueue;
+import blueprint.sdk.core.concurrent.RingBufferJobQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * push/take throughput of JobQueue implementations with producers and consumers.<br>
+ * 1 producer and 1 consumer by default. Use JMH's -tg option for more, ex) -tg 4,4<br>
+ * <br>
+ * Queues are bounded and both sides time out, so that a group never hangs at the end of an iteration.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JobQueueBenchmark {
+    private static final int CAPACITY = 1024;
+    private static final long TIMEOUT = 10;
+    private static final Integer JOB = 1;
+
+    @Param({"JobQueue", "RingBufferJobQueue", "PriorityJobQueue"})
+    public String type;
+
+    private JobQueue<Integer> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        switch (type) {
+            case "RingBufferJobQueue":
+                queue = new RingBufferJobQueue<>(CAPACITY);
+                break;
+            case "PriorityJobQueue":
+                queue = PriorityJobQueue.newWeightedQueue(4, 2, 1);
+                break;
+            default:
+                queue = new JobQueue<>(CAPACITY);
+                break;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        queue.dispose();
+        queue.clear();
+    }
+
+    @Benchmark
+    @Group("pushTake")
+    @GroupThreads(1)
+    public boolean push() {
+        return queue.offer(JOB, TIMEOUT);
+    }
+
+    @Benchmark
+    @Group("pushTake")
+    @GroupThreads(1)
+    public List<Integer> take() {
+        return queue.take(1, TIMEOUT);
+    }
+
+    @Benchmark
+    @Group("batch")
+    @GroupThreads(1)
+    public boolean batchPush() {
+        return queue.offer(JOB, TIMEOUT);
+    }
+
+    @Benchmark
+    @Group("batch")
+    @GroupThreads(1)
+    public List<Integer> batchTake() {
+        return queue.take(100, TIMEOUT);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.benchmarks;
+
+import blueprint.sdk.util.queue.H2Queue;
+import blueprint.sdk.util.queue.LogQueue;
+import blueprint.sdk.util.queue.MessageQueue;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * push/pop latency of in-memory {@link MessageQueue} and persistent {@link H2Queue}, {@link LogQueue}
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageQueueBenchmark {
+    private static final String MESSAGE = "{\"to\":\"benchmark\",\"data\":{\"message\":\"hello\"}}";
+
+    @Param({"memory", "h2", "log"})
+    public String type;
+
+    private MessageQueue queue;
+    private File dir;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if ("h2".equals(type)) {
+            dir = Files.createTempDirectory("h2queue").toFile();
+
+            JdbcDataSource datasrc = new JdbcDataSource();
+            datasrc.setURL("jdbc:h2:" + new File(dir, "queue").getAbsolutePath());
+
+            H2Queue h2Queue = new H2Queue(datasrc);
+            h2Queue.init();
+            queue = h2Queue;
+        } else if ("log".equals(type)) {
+            dir = Files.createTempDirectory("logqueue").toFile();
+
+            LogQueue logQueue = new LogQueue(dir);
+            logQueue.init();
+            queue = logQueue;
+        } else {
+            queue = new MessageQueue();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queue.clear();
+        if (queue instanceof LogQueue) {
+            ((LogQueue) queue).dispose();
+        }
+
+        if (dir != null) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+            //noinspection ResultOfMethodCallIgnored
+            dir.delete();
+        }
+    }
+
+    @Benchmark
+    public String pushPop() {
+        queue.push(MESSAGE);
+        return queue.pop();
+    }
+}
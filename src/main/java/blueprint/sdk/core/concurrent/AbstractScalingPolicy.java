@@ -0,0 +1,207 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+
+/**
+ * Base of {@link ScalingPolicy}.<br>
+ * Clamps decisions to [min, max] workers, applies cooldowns and tracks a decaying peak throughput.<br>
+ * Decisions are exposed through getters, and registered as metrics by {@link SpanningWorkerGroup}.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public abstract class AbstractScalingPolicy implements ScalingPolicy, Instrumented {
+    /**
+     * minimum number of workers
+     */
+    private final int minWorkers;
+    /**
+     * maximum number of workers
+     */
+    private final int maxWorkers;
+    /**
+     * minimum time between a change and next scale up (msec)
+     */
+    private final long upCooldown;
+    /**
+     * minimum time between a change and next scale down (msec)
+     */
+    private final long downCooldown;
+    /**
+     * decay factor of peak throughput per period (0 ~ 1)
+     */
+    private final double peakDecay;
+
+    private double peakThroughput = 0;
+    private long lastChange = 0;
+
+    private volatile Sample lastSample;
+    private volatile int lastDecision;
+    private volatile String lastReason = "";
+    private volatile long scaleUps = 0;
+    private volatile long scaleDowns = 0;
+
+    /**
+     * @param minWorkers   minimum number of workers
+     * @param maxWorkers   maximum number of workers
+     * @param upCooldown   minimum time between a change and next scale up (msec)
+     * @param downCooldown minimum time between a change and next scale down (msec)
+     * @param peakDecay    decay factor of peak throughput per period (0 ~ 1)
+     */
+    protected AbstractScalingPolicy(int minWorkers, int maxWorkers, long upCooldown, long downCooldown,
+                                    double peakDecay) {
+        if (minWorkers < 1 || maxWorkers < minWorkers) {
+            throw new IllegalArgumentException("invalid range of workers - min: " + minWorkers + ", max: "
+                    + maxWorkers);
+        }
+        if (peakDecay < 0 || peakDecay > 1) {
+            throw new IllegalArgumentException("peakDecay must be between 0 and 1 - " + peakDecay);
+        }
+
+        this.minWorkers = minWorkers;
+        this.maxWorkers = maxWorkers;
+        this.upCooldown = upCooldown;
+        this.downCooldown = downCooldown;
+        this.peakDecay = peakDecay;
+    }
+
+    @Override
+    public synchronized int decide(Sample sample) {
+        peakThroughput = Math.max(peakThroughput * peakDecay, sample.getThroughput());
+
+        int target = desired(sample);
+        if (target > maxWorkers) {
+            target = maxWorkers;
+        } else if (target < minWorkers) {
+            target = minWorkers;
+        }
+
+        long sinceLastChange = sample.timestamp - lastChange;
+        if (target > sample.workers && sinceLastChange < upCooldown) {
+            target = sample.workers;
+            reason("up cooldown");
+        } else if (target < sample.workers && sinceLastChange < downCooldown) {
+            target = sample.workers;
+            reason("down cooldown");
+        }
+
+        if (target > sample.workers) {
+            scaleUps++;
+            lastChange = sample.timestamp;
+        } else if (target < sample.workers) {
+            scaleDowns++;
+            lastChange = sample.timestamp;
+        }
+
+        lastSample = sample;
+        lastDecision = target;
+
+        return target;
+    }
+
+    /**
+     * @param sample metrics of last period
+     * @return desired number of workers (clamped later)
+     */
+    protected abstract int desired(Sample sample);
+
+    /**
+     * Records reason of current decision
+     *
+     * @param reason reason
+     */
+    protected void reason(String reason) {
+        lastReason = reason;
+    }
+
+    /**
+     * @return decaying peak throughput (jobs per second)
+     */
+    public double getPeakThroughput() {
+        return peakThroughput;
+    }
+
+    /**
+     * @return minimum number of workers
+     */
+    public int getMinWorkers() {
+        return minWorkers;
+    }
+
+    /**
+     * @return maximum number of workers
+     */
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    /**
+     * @return last sample (null if never decided)
+     */
+    public Sample getLastSample() {
+        return lastSample;
+    }
+
+    /**
+     * @return last decided number of workers
+     */
+    public int getLastDecision() {
+        return lastDecision;
+    }
+
+    /**
+     * @return reason of last decision
+     */
+    public String getLastReason() {
+        return lastReason;
+    }
+
+    /**
+     * @return number of scale up decisions
+     */
+    public long getScaleUps() {
+        return scaleUps;
+    }
+
+    /**
+     * @return number of scale down decisions
+     */
+    public long getScaleDowns() {
+        return scaleDowns;
+    }
+
+    /**
+     * Registers peak throughput, range of workers and number of decisions (after cooldowns).<br>
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names
+     */
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        registry.gauge(prefix + ".peakThroughput", () -> (long) getPeakThroughput());
+        registry.gauge(prefix + ".scaleUps", this::getScaleUps);
+        registry.gauge(prefix + ".scaleDowns", this::getScaleDowns);
+        registry.gauge(prefix + ".minWorkers", this::getMinWorkers);
+        registry.gauge(prefix + ".maxWorkers", this::getMaxWorkers);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[decision=" + lastDecision + ", reason=" + lastReason + ", peak="
+                + (long) peakThroughput + "/s, ups=" + scaleUps + ", downs=" + scaleDowns + "]";
+    }
+}
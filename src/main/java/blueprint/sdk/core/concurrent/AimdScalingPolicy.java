@@ -0,0 +1,116 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * AIMD(Additive Increase, Multiplicative Decrease) {@link ScalingPolicy}.<br>
+ * <br>
+ * Adds workers while mean wait time is above target and throughput keeps up with (decaying) peak.<br>
+ * Removes workers multiplicatively when queue is idle, or when more workers didn't bring more throughput.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class AimdScalingPolicy extends AbstractScalingPolicy {
+    /**
+     * tolerance for throughput compared to peak
+     */
+    private static final double TOLERANCE = 0.1;
+
+    /**
+     * target wait time (nano seconds)
+     */
+    private final long targetWait;
+    /**
+     * number of workers to add at once
+     */
+    private final int increment;
+    /**
+     * multiplier for decrease (0 ~ 1)
+     */
+    private final double decreaseFactor;
+
+    /**
+     * Constructor (increment 1, decrease 20%, no up cooldown, 30s down cooldown, peak decay 10% per period)
+     *
+     * @param minWorkers minimum number of workers
+     * @param maxWorkers maximum number of workers
+     * @param targetWait target wait time (msec)
+     */
+    public AimdScalingPolicy(int minWorkers, int maxWorkers, long targetWait) {
+        this(minWorkers, maxWorkers, targetWait, 1, 0.8, 0, 30 * 1000, 0.9);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minWorkers     minimum number of workers
+     * @param maxWorkers     maximum number of workers
+     * @param targetWait     target wait time (msec)
+     * @param increment      number of workers to add at once
+     * @param decreaseFactor multiplier for decrease (0 ~ 1)
+     * @param upCooldown     minimum time between a change and next scale up (msec)
+     * @param downCooldown   minimum time between a change and next scale down (msec)
+     * @param peakDecay      decay factor of peak throughput per period (0 ~ 1)
+     */
+    public AimdScalingPolicy(int minWorkers, int maxWorkers, long targetWait, int increment, double decreaseFactor,
+                             long upCooldown, long downCooldown, double peakDecay) {
+        super(minWorkers, maxWorkers, upCooldown, downCooldown, peakDecay);
+
+        if (increment < 1) {
+            throw new IllegalArgumentException("increment must be positive - " + increment);
+        }
+        if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("decreaseFactor must be between 0 and 1 - " + decreaseFactor);
+        }
+
+        this.targetWait = targetWait * 1000 * 1000;
+        this.increment = increment;
+        this.decreaseFactor = decreaseFactor;
+    }
+
+    @Override
+    protected int desired(Sample sample) {
+        int result = sample.workers;
+
+        if (sample.idle && sample.queued == 0) {
+            reason("idle");
+            result = decrease(sample.workers);
+        } else if (sample.meanWaitTime > targetWait) {
+            if (sample.getThroughput() >= getPeakThroughput() * (1 - TOLERANCE)) {
+                reason("wait above target");
+                result = sample.workers + increment;
+            } else {
+                reason("throughput below peak");
+                result = decrease(sample.workers);
+            }
+        } else {
+            reason("steady");
+        }
+
+        return result;
+    }
+
+    /**
+     * @param workers current number of workers
+     * @return decreased number of workers (at least 1 less)
+     */
+    private int decrease(int workers) {
+        int result = (int) (workers * decreaseFactor);
+        if (result >= workers) {
+            result = workers - 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import blueprint.sdk.util.queue.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Worker Thread which processes jobs in batches.<br>
+ * Takes up to batchSize jobs at once, so that per-call overhead is amortized.<br>
+ *
+ * @param <J> job class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public abstract class BatchWorker<J> extends Worker<J> {
+    /**
+     * default maximum number of jobs per batch
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    /**
+     * default maximum wait time for a batch (msec)
+     */
+    public static final long DEFAULT_TIMEOUT = WorkerGroup.INTERVAL;
+
+    private static final Logger L = LoggerFactory.getLogger(WorkerGroup.class);
+
+    /**
+     * maximum number of jobs per batch
+     */
+    private final int batchSize;
+    /**
+     * maximum wait time for a batch (msec)
+     */
+    private final long timeout;
+
+    /**
+     * Constructor (uses default batch size and timeout)
+     *
+     * @param jobQueue     job queue
+     * @param deathMonitor notify this monitor after termination
+     */
+    public BatchWorker(final Queue<J> jobQueue, final Object deathMonitor) {
+        this(jobQueue, deathMonitor, DEFAULT_BATCH_SIZE, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param jobQueue     job queue
+     * @param deathMonitor notify this monitor after termination
+     * @param batchSize    maximum number of jobs per batch
+     * @param timeout      maximum wait time for a batch (msec)
+     */
+    public BatchWorker(final Queue<J> jobQueue, final Object deathMonitor, final int batchSize, final long timeout) {
+        super(jobQueue, deathMonitor);
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive - " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        while (running) {
+            List<J> jobs = Collections.emptyList();
+            long start = 0L;
+            try {
+                // blocks until queue have something to pop or timeout
+                jobs = jobQueue.take(batchSize, timeout);
+                if (!jobs.isEmpty()) {
+                    active = true;
+                    start = System.nanoTime();
+                    process(jobs);
+                } else if (jobQueue.isDisposed()) {
+                    // take() returns right away from now on
+                    terminate();
+                } else {
+                    // timed out or interrupted. running flag decides termination, not the interrupt.
+                    Thread.interrupted();
+                }
+            } catch (Exception e) {
+                L.error("Can't process jobs", e);
+                terminate();
+            } finally {
+                if (!jobs.isEmpty() && jobQueue instanceof JobQueue) {
+                    JobQueue<?> queue = (JobQueue<?>) jobQueue;
+                    queue.increaseProcessedJobCounter(jobs.size());
+                    if (start != 0L) {
+                        queue.recordServiceTime(System.nanoTime() - start, jobs.size());
+                    }
+                }
+                if (jobQueue instanceof KeyedJobQueue) {
+                    // let next jobs of same key go
+                    ((KeyedJobQueue<?>) jobQueue).done();
+                }
+                active = false;
+            }
+        }
+
+        terminated = true;
+    }
+
+    /**
+     * handles a batch of jobs
+     *
+     * @param jobs jobs to process (at least 1, at most batchSize)
+     */
+    protected abstract void process(List<J> jobs);
+
+    @Override
+    protected void process(J job) {
+        process(Collections.singletonList(job));
+    }
+
+    /**
+     * @return maximum number of jobs per batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -18,38 +18,102 @@ import blueprint.sdk.util.Terminatable;
 import blueprint.sdk.util.Validator;
 import org.slf4j.Logger;
 
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 /**
  * Manages {@link Consumer} for deferred execution.<br>
  * <br>
+ * A consumer is fired at most once. {@link DeferredConsumers#fire(String, Object)} removes it atomically.<br>
  * <b>Evicted consumers will be fired with null argument.</b><br>
+ * <br>
+ * Consumers are kept in shards, each with it's own {@link TimingWheel},
+ * so that eviction only visits expiring consumers.<br>
  *
  * @author lempel@gmail.com
  * @since 2019. 3. 4.
  */
 public class DeferredConsumers<T> implements Terminatable, Runnable {
     private static final Logger L = LoggerHelper.get();
+    /**
+     * maximum number of wheel buckets per shard
+     */
+    private static final int MAX_BUCKETS = 1 << 12;
 
     /**
-     * Wraps {@link Consumer} with timestamp
+     * Wraps {@link Consumer} with deadline
      */
     private class Wrapper {
         String key;
-        long stamp;
+        Shard shard;
         Consumer<T> consumer;
+        CompletableFuture<T> future;
+        volatile TimingWheel.Timeout<Wrapper> timeout;
+
+        /**
+         * cancels eviction
+         */
+        void cancel() {
+            TimingWheel.Timeout<Wrapper> current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        void fire(T arg) {
+            if (future != null) {
+                future.complete(arg);
+            } else if (consumer != null) {
+                consumer.accept(arg);
+            }
+        }
+
+        void evict() {
+            if (future != null) {
+                future.completeExceptionally(new TimeoutException("no reply for " + key));
+            } else if (consumer != null) {
+                consumer.accept(null);
+            }
+        }
+
+        /**
+         * cancels eviction and future (replaced or terminated). consumer is not called.
+         *
+         * @param reason reason of discard
+         */
+        void discard(String reason) {
+            cancel();
+            if (future != null) {
+                future.completeExceptionally(new CancellationException(reason + " - " + key));
+            }
+        }
     }
 
-    private Map<String, Wrapper> map = new ConcurrentHashMap<>();
+    /**
+     * A shard of consumers
+     */
+    private class Shard {
+        final Map<String, Wrapper> map = new ConcurrentHashMap<>();
+        final TimingWheel<Wrapper> wheel;
+
+        Shard(int buckets) {
+            wheel = new TimingWheel<>(interval, TimeUnit.MILLISECONDS, buckets);
+        }
+    }
+
+    private final Shard[] shards;
+    private final int mask;
 
     private long interval;
     private long ttl;
-    private boolean running = false;
+    private volatile boolean running = false;
+    private volatile boolean terminated = false;
 
     /**
      * Constructor
@@ -58,8 +122,39 @@ public class DeferredConsumers<T> implements Terminatable, Runnable {
      * @param ttl      time to live (msec)
      */
     public DeferredConsumers(long interval, long ttl) {
+        this(interval, ttl, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param interval interval of eviction process (msec, resolution of ttl)
+     * @param ttl      time to live (msec)
+     * @param shards   number of shards (rounded up to power of 2)
+     */
+    @SuppressWarnings("unchecked")
+    public DeferredConsumers(long interval, long ttl, int shards) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive - " + interval);
+        }
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be positive - " + shards);
+        }
+
         this.interval = interval;
         this.ttl = ttl;
+
+        int length = 1;
+        while (length < shards) {
+            length <<= 1;
+        }
+
+        int buckets = (int) Math.min(MAX_BUCKETS, Math.max(1, ttl / interval + 1));
+        this.shards = (Shard[]) new DeferredConsumers<?>.Shard[length];
+        for (int i = 0; i < length; i++) {
+            this.shards[i] = new Shard(buckets);
+        }
+        mask = length - 1;
     }
 
     /**
@@ -78,28 +173,29 @@ public class DeferredConsumers<T> implements Terminatable, Runnable {
     @Override
     public void run() {
         while (running) {
-            try {
-                long now = System.currentTimeMillis();
-
-                List<Wrapper> candidates = map.values().stream()
-                        .filter(w -> w.stamp + ttl < now)
-                        .collect(Collectors.toList());
-
-                candidates.forEach(w -> {
-                    map.remove(w.key);
-                    if (w.consumer != null) {
-                        w.consumer.accept(null);
-                    }
-                });
-            } catch (Exception e) {
-                L.warn("Failed to evict stale consumers", e);
+            for (Shard shard : shards) {
+                try {
+                    shard.wheel.expire(w -> {
+                        if (shard.map.remove(w.key, w)) {
+                            w.evict();
+                        }
+                    });
+                } catch (Exception e) {
+                    L.warn("Failed to evict stale consumers", e);
+                }
             }
 
-            try {
-                Thread.sleep(interval);
-            } catch (InterruptedException ignored) {
+            synchronized (this) {
+                try {
+                    if (running) {
+                        wait(interval);
+                    }
+                } catch (InterruptedException ignored) {
+                }
             }
         }
+
+        terminated = true;
     }
 
     /**
@@ -109,18 +205,92 @@ public class DeferredConsumers<T> implements Terminatable, Runnable {
      * @param consumer consumer
      */
     public void put(String key, Consumer<T> consumer) {
+        put(key, consumer, ttl);
+    }
+
+    /**
+     * Puts a consumer with it's own time to live
+     *
+     * @param key      some key
+     * @param consumer consumer
+     * @param ttl      time to live (msec)
+     */
+    public void put(String key, Consumer<T> consumer, long ttl) {
         if (!Validator.isEmpty(key)) {
             Wrapper w = new Wrapper();
             w.key = key;
-            w.stamp = System.currentTimeMillis();
             w.consumer = consumer;
 
-            map.put(key, w);
+            register(w, ttl);
+        }
+    }
+
+    /**
+     * Registers a future which is completed by {@link DeferredConsumers#fire(String, Object)}.<br>
+     * Evicted futures are completed exceptionally with {@link TimeoutException}.<br>
+     * Futures which are replaced by another registration of same key, or still pending on
+     * {@link DeferredConsumers#terminate()}, are completed exceptionally with {@link CancellationException}.<br>
+     * Cancelling returned future removes it.<br>
+     *
+     * @param key some key
+     * @return future of fired argument
+     */
+    public CompletableFuture<T> defer(String key) {
+        return defer(key, ttl);
+    }
+
+    /**
+     * Registers a future with it's own time to live
+     *
+     * @param key some key
+     * @param ttl time to live (msec)
+     * @return future of fired argument
+     * @see DeferredConsumers#defer(String)
+     */
+    public CompletableFuture<T> defer(String key, long ttl) {
+        if (Validator.isEmpty(key)) {
+            throw new IllegalArgumentException("key is empty");
+        }
+
+        Wrapper w = new Wrapper();
+        w.key = key;
+        w.future = new CompletableFuture<>();
+
+        register(w, ttl);
+        w.future.whenComplete((result, e) -> {
+            // completed by other than fire/evict (ex: cancel)
+            if (w.shard.map.remove(w.key, w)) {
+                w.cancel();
+            }
+        });
+
+        return w.future;
+    }
+
+    private void register(Wrapper w, long ttl) {
+        Shard shard = shardOf(w.key);
+        w.shard = shard;
+
+        Wrapper old = shard.map.put(w.key, w);
+        if (old != null) {
+            old.discard("replaced");
+        }
+
+        w.timeout = shard.wheel.schedule(w, ttl, TimeUnit.MILLISECONDS);
+        if (shard.map.get(w.key) != w) {
+            // fired or replaced while scheduling
+            w.cancel();
         }
     }
 
+    private Shard shardOf(String key) {
+        int hash = key.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
     /**
-     * Fires a consumer which is associated with given key
+     * Fires a consumer which is associated with given key.<br>
+     * The consumer is removed, so that it's fired only once.<br>
      *
      * @param key some key
      * @param arg argument for {@link Consumer}
@@ -130,16 +300,32 @@ public class DeferredConsumers<T> implements Terminatable, Runnable {
         boolean result = false;
 
         if (!Validator.isEmpty(key)) {
-            Wrapper w = map.get(key);
-            if (w != null && w.consumer != null) {
-                w.consumer.accept(arg);
-                result = true;
+            Wrapper w = shardOf(key).map.remove(key);
+            if (w != null) {
+                w.cancel();
+                if (w.consumer != null || w.future != null) {
+                    w.fire(arg);
+                    result = true;
+                }
             }
         }
 
         return result;
     }
 
+    /**
+     * @return number of waiting consumers
+     */
+    public int size() {
+        int result = 0;
+
+        for (Shard shard : shards) {
+            result += shard.map.size();
+        }
+
+        return result;
+    }
+
     @Override
     public boolean isValid() {
         return running;
@@ -147,12 +333,26 @@ public class DeferredConsumers<T> implements Terminatable, Runnable {
 
     @Override
     public boolean isTerminated() {
-        return running;
+        return terminated;
     }
 
+    /**
+     * Stops eviction. Pending futures are completed exceptionally with {@link CancellationException}.
+     */
     @Override
     public void terminate() {
         running = false;
-        this.notifyAll();
+
+        synchronized (this) {
+            this.notifyAll();
+        }
+
+        for (Shard shard : shards) {
+            for (Wrapper w : shard.map.values()) {
+                if (w.future != null && shard.map.remove(w.key, w)) {
+                    w.discard("terminated");
+                }
+            }
+        }
     }
 }
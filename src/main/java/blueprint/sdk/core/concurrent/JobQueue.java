@@ -15,23 +15,41 @@ package blueprint.sdk.core.concurrent;
 
 import blueprint.sdk.core.concurrent.lock.Mutex;
 import blueprint.sdk.util.Counter;
+import blueprint.sdk.util.Statistics;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+import blueprint.sdk.util.metrics.QueueMetrics;
 import blueprint.sdk.util.queue.Queue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
 /**
  * JobQueue for Workers.<br>
  * A Worker Group shares a JobQueue.<br>
+ * <br>
+ * Unbounded by default. A bounded JobQueue limits number of jobs and/or total weight of jobs (memory budget).<br>
+ * {@link JobQueue#push(Object)} waits for room, {@link JobQueue#offer(Object)} doesn't.<br>
  * <b>Thread Safe</b><br>
  *
  * @param <T> job class
  * @author lempel@gmail.com
  * @since 2008. 11. 25.
  */
-public class JobQueue<T> implements Queue<T> {
+public class JobQueue<T> implements Queue<T>, Instrumented {
     private final ReentrantLock lock = new ReentrantLock();
     private final Mutex mutex = new Mutex();
+    /**
+     * signalled when a job is removed from bounded queue
+     */
+    private final Condition notFull = lock.newCondition();
     /**
      * actual job queue
      */
@@ -40,6 +58,49 @@ public class JobQueue<T> implements Queue<T> {
      * counts how many jobs are processed
      */
     private final Counter processedJobs = new Counter();
+    /**
+     * enqueue timestamps of queued jobs (System.nanoTime(), 0 = not counted)
+     */
+    private final Stamps stamps = new Stamps();
+    /**
+     * enqueue-to-start latency of jobs (nano seconds)
+     */
+    private final Statistics waitTimes = new Statistics();
+    /**
+     * processing time of jobs (nano seconds)
+     */
+    private final Statistics serviceTimes = new Statistics();
+    /**
+     * maximum number of jobs
+     */
+    private final int capacity;
+    /**
+     * maximum total weight of jobs (0 = unlimited)
+     */
+    private final long memoryBudget;
+    /**
+     * estimates weight (bytes) of a job
+     */
+    private final ToLongFunction<? super T> weigher;
+    /**
+     * weights of queued jobs (memory budget only)
+     */
+    private final Stamps weights = new Stamps();
+    /**
+     * total weight of queued jobs
+     */
+    private long weight = 0L;
+    private WatermarkListener watermarkListener = null;
+    private int highWatermark = Integer.MAX_VALUE;
+    private int lowWatermark = 0;
+    /**
+     * true: high watermark is reached and low watermark is not reached yet
+     */
+    private boolean throttled = false;
+    /**
+     * null until {@link JobQueue#registerMetrics(MetricRegistry, String)}
+     */
+    private volatile QueueMetrics metrics = null;
     private boolean idle = false;
     /**
      * start/stop count
@@ -50,28 +111,176 @@ public class JobQueue<T> implements Queue<T> {
      */
     private boolean disposed = false;
 
+    /**
+     * Constructor (unbounded)
+     */
+    public JobQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity maximum number of jobs
+     */
+    public JobQueue(int capacity) {
+        this(capacity, 0L, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity     maximum number of jobs
+     * @param memoryBudget maximum total weight of queued jobs (bytes, 0 = unlimited)
+     * @param weigher      estimates weight of a job (bytes). required if memoryBudget is set.
+     */
+    public JobQueue(int capacity, long memoryBudget, ToLongFunction<? super T> weigher) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive - " + capacity);
+        }
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("memoryBudget can't be negative - " + memoryBudget);
+        }
+        if (memoryBudget > 0 && weigher == null) {
+            throw new NullPointerException("weigher is null");
+        }
+
+        this.capacity = capacity;
+        this.memoryBudget = memoryBudget;
+        this.weigher = weigher;
+    }
+
     /**
      * push a job Object to queue<br>
+     * Waits while bounded queue is full.<br>
      *
      * @param aJob job to push
      */
     public void push(final T aJob) {
         lock.lock();
         try {
+            long jobWeight = weigh(aJob);
+            while (!disposed && !hasRoom(jobWeight)) {
+                notFull.awaitUninterruptibly();
+            }
+
             if (disposed) {
                 throw new IllegalStateException("Can't push into disposed queue");
             } else {
-                queue.add(aJob);
-
-                if (mutex.isLocked()) {
-                    mutex.unlock();
-                }
+                enqueue(aJob, jobWeight);
             }
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * push a job Object to queue without waiting
+     *
+     * @param aJob job to push
+     * @return false if queue is full
+     */
+    public boolean offer(final T aJob) {
+        boolean result = false;
+
+        if (isBounded()) {
+            lock.lock();
+            try {
+                if (disposed) {
+                    throw new IllegalStateException("Can't push into disposed queue");
+                }
+
+                long jobWeight = weigh(aJob);
+                if (hasRoom(jobWeight)) {
+                    enqueue(aJob, jobWeight);
+                    result = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            push(aJob);
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * push a job Object to queue.<br>
+     * Waits while queue is full, at most given timeout.<br>
+     *
+     * @param aJob    job to push
+     * @param timeout maximum wait time (msec)
+     * @return false if queue is still full after timeout (or interrupted)
+     */
+    public boolean offer(final T aJob, final long timeout) {
+        boolean result = false;
+
+        if (isBounded()) {
+            lock.lock();
+            try {
+                long jobWeight = weigh(aJob);
+                long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+                while (!disposed && !hasRoom(jobWeight) && remaining > 0) {
+                    remaining = notFull.awaitNanos(remaining);
+                }
+
+                if (disposed) {
+                    throw new IllegalStateException("Can't push into disposed queue");
+                } else if (hasRoom(jobWeight)) {
+                    enqueue(aJob, jobWeight);
+                    result = true;
+                }
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            push(aJob);
+            result = true;
+        }
+
+        return result;
+    }
+
+    /**
+     * push a job Object to queue.<br>
+     * If queue is full, oldest jobs are dropped to make room.<br>
+     *
+     * @param aJob job to push
+     * @return dropped jobs (oldest first)
+     */
+    public List<T> pushDroppingOldest(final T aJob) {
+        List<T> result = Collections.emptyList();
+
+        if (isBounded()) {
+            lock.lock();
+            try {
+                if (disposed) {
+                    throw new IllegalStateException("Can't push into disposed queue");
+                }
+
+                long jobWeight = weigh(aJob);
+                while (!hasRoom(jobWeight) && !queue.isEmpty()) {
+                    if (result.isEmpty()) {
+                        result = new ArrayList<>();
+                    }
+                    result.add(evict());
+                }
+
+                enqueue(aJob, jobWeight);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            push(aJob);
+        }
+
+        return result;
+    }
+
     /**
      * pops a job Object from queue
      *
@@ -82,7 +291,7 @@ public class JobQueue<T> implements Queue<T> {
 
         lock.lock();
         try {
-            while (queue.size() == 0 || (aJob = queue.pop()) == null) {
+            while (queue.size() == 0 || (aJob = dequeue()) == null) {
                 idle = true;
                 lock.unlock();
 
@@ -98,6 +307,177 @@ public class JobQueue<T> implements Queue<T> {
         return aJob;
     }
 
+    @Override
+    public List<T> take(int max, long timeout) {
+        List<T> result = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        lock.lock();
+        try {
+            boolean interrupted = false;
+            while (queue.isEmpty() && !disposed && !interrupted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+
+                idle = true;
+                lock.unlock();
+                try {
+                    mutex.tryLock(remaining, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException ignored) {
+                    interrupted = true;
+                } finally {
+                    lock.lock();
+                    idle = false;
+                }
+            }
+
+            drain(result, max);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        lock.lock();
+        try {
+            return drain(target, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * moves jobs to target. must hold the lock.
+     *
+     * @param target collection to transfer jobs into
+     * @param max    maximum number of jobs
+     * @return number of transferred jobs
+     */
+    private int drain(Collection<? super T> target, int max) {
+        int result = 0;
+
+        while (result < max && !queue.isEmpty()) {
+            target.add(dequeue());
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return true if number of jobs or memory is limited
+     */
+    private boolean isBounded() {
+        return capacity != Integer.MAX_VALUE || memoryBudget > 0;
+    }
+
+    /**
+     * @param aJob a job
+     * @return weight of given job (0 if memory budget is not set)
+     */
+    private long weigh(T aJob) {
+        long result = 0L;
+
+        if (memoryBudget > 0) {
+            result = weigher.applyAsLong(aJob);
+            if (result > memoryBudget) {
+                throw new IllegalArgumentException("job exceeds memory budget - weight: " + result + ", budget: "
+                        + memoryBudget);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * must hold the lock.
+     *
+     * @param jobWeight weight of a job to push
+     * @return true if given job fits in the queue
+     */
+    private boolean hasRoom(long jobWeight) {
+        return queue.size() < capacity && (memoryBudget == 0 || weight + jobWeight <= memoryBudget);
+    }
+
+    /**
+     * adds a job with timestamp. must hold the lock.
+     *
+     * @param aJob      job to add
+     * @param jobWeight weight of job
+     */
+    private void enqueue(T aJob, long jobWeight) {
+        queue.add(aJob);
+        stamps.add(isStamping() ? System.nanoTime() : 0L);
+        enqueued();
+        if (memoryBudget > 0) {
+            weights.add(jobWeight);
+            weight += jobWeight;
+        }
+
+        if (!throttled && queue.size() >= highWatermark) {
+            throttled = true;
+            watermarkListener.onHighWatermark(queue.size());
+        }
+
+        if (mutex.isLocked()) {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     * removes a job and records it's wait time. must hold the lock.
+     *
+     * @return a job
+     */
+    private T dequeue() {
+        dequeued(stamps.remove());
+
+        T result = queue.pop();
+        removed();
+
+        return result;
+    }
+
+    /**
+     * removes oldest job without processing. must hold the lock.
+     *
+     * @return dropped job
+     */
+    private T evict() {
+        stamps.remove();
+
+        T result = queue.pop();
+        removed();
+
+        return result;
+    }
+
+    /**
+     * releases weight of removed job and wakes up a producer. must hold the lock.
+     */
+    private void removed() {
+        if (memoryBudget > 0) {
+            weight -= weights.remove();
+        }
+
+        if (throttled && queue.size() <= lowWatermark) {
+            throttled = false;
+            watermarkListener.onLowWatermark(queue.size());
+        }
+
+        if (isBounded()) {
+            notFull.signal();
+        }
+    }
+
     /**
      * @return size of queue
      */
@@ -105,6 +485,60 @@ public class JobQueue<T> implements Queue<T> {
         return queue.size();
     }
 
+    /**
+     * @return maximum number of jobs
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return maximum total weight of jobs (bytes, 0 = unlimited)
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * @return total weight of queued jobs (bytes, 0 if memory budget is not set)
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets watermarks for producer throttling.<br>
+     * listener.onHighWatermark() is called when size of queue reaches high,
+     * then listener.onLowWatermark() is called when it drains down to low.<br>
+     * Listener is called while holding the lock of queue, so it must return quickly.<br>
+     * <br>
+     * Only supported by JobQueue itself (not by subclasses with their own storage).<br>
+     *
+     * @param high     high watermark (number of jobs)
+     * @param low      low watermark (number of jobs)
+     * @param listener watermark listener (null = remove)
+     */
+    public void setWatermarks(int high, int low, WatermarkListener listener) {
+        if (listener != null && (low < 0 || high <= low)) {
+            throw new IllegalArgumentException("0 <= low < high required - high: " + high + ", low: " + low);
+        }
+
+        lock.lock();
+        try {
+            watermarkListener = listener;
+            highWatermark = listener == null ? Integer.MAX_VALUE : high;
+            lowWatermark = listener == null ? 0 : low;
+            throttled = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public boolean isIdle() {
         lock.lock();
         try {
@@ -135,6 +569,88 @@ public class JobQueue<T> implements Queue<T> {
         }
     }
 
+    /**
+     * @return true if jobs need enqueue timestamps (counting or metrics)
+     */
+    boolean isStamping() {
+        return count || metrics != null;
+    }
+
+    /**
+     * counts an enqueued job (metrics)
+     */
+    void enqueued() {
+        QueueMetrics current = metrics;
+        if (current != null) {
+            current.enqueued(1);
+        }
+    }
+
+    /**
+     * counts a dequeued job and records it's wait time
+     *
+     * @param stamp enqueue timestamp of the job (System.nanoTime(), 0 = not stamped)
+     */
+    void dequeued(long stamp) {
+        long nanos = stamp == 0L ? -1L : System.nanoTime() - stamp;
+
+        if (count && nanos >= 0) {
+            waitTimes.add(nanos);
+        }
+
+        QueueMetrics current = metrics;
+        if (current != null) {
+            current.dequeued(1);
+            if (nanos >= 0) {
+                current.waitTime(nanos);
+            }
+        }
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        metrics = new QueueMetrics(registry, prefix, this::size);
+    }
+
+    /**
+     * records processing time of jobs<br>
+     * this method is called by Worker<br>
+     *
+     * @param nanos total processing time (nano seconds)
+     * @param jobs  number of processed jobs
+     */
+    void recordServiceTime(long nanos, int jobs) {
+        if (count) {
+            serviceTimes.add(nanos, jobs);
+        }
+    }
+
+    /**
+     * @return mean enqueue-to-start latency since last reset (nano seconds)
+     */
+    long getMeanWaitTime() {
+        return waitTimes.mean();
+    }
+
+    /**
+     * @return mean processing time since last reset (nano seconds)
+     */
+    long getMeanServiceTime() {
+        return serviceTimes.mean();
+    }
+
+    /**
+     * counts processed jobs<br>
+     * this method is called by BatchWorker<br>
+     *
+     * @param jobs number of processed jobs
+     */
+    void increaseProcessedJobCounter(int jobs) {
+        if (count) {
+            processedJobs.add(jobs);
+        }
+    }
+
     /**
      * @return processed jobs count
      */
@@ -147,6 +663,18 @@ public class JobQueue<T> implements Queue<T> {
      */
     void resetProcessedJobs() {
         processedJobs.reset();
+        waitTimes.reset();
+        serviceTimes.reset();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        lock.lock();
+        try {
+            return disposed;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -160,6 +688,7 @@ public class JobQueue<T> implements Queue<T> {
             if (mutex.isLocked()) {
                 mutex.unlock();
             }
+            notFull.signalAll();
             idle = true;
         } finally {
             lock.unlock();
@@ -173,6 +702,16 @@ public class JobQueue<T> implements Queue<T> {
         lock.lock();
         try {
             queue.clear();
+            stamps.clear();
+            weights.clear();
+            weight = 0L;
+            if (throttled) {
+                throttled = false;
+                watermarkListener.onLowWatermark(0);
+            }
+            if (isBounded()) {
+                notFull.signalAll();
+            }
 
             resetProcessedJobs();
         } finally {
@@ -191,4 +730,47 @@ public class JobQueue<T> implements Queue<T> {
 
         super.finalize();
     }
+
+    /**
+     * FIFO of primitive timestamps (no boxing)
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    static class Stamps {
+        private long[] values = new long[16];
+        private int head = 0;
+        private int size = 0;
+
+        void add(long value) {
+            if (size == values.length) {
+                long[] grown = new long[values.length << 1];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = values[(head + i) % values.length];
+                }
+                values = grown;
+                head = 0;
+            }
+
+            values[(head + size) % values.length] = value;
+            size++;
+        }
+
+        long remove() {
+            long result = 0L;
+
+            if (size > 0) {
+                result = values[head];
+                head = (head + 1) % values.length;
+                size--;
+            }
+
+            return result;
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+    }
 }
@@ -0,0 +1,302 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import blueprint.sdk.util.queue.Queue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JobQueue with per-key ordering.<br>
+ * <br>
+ * Jobs are hashed by key into a fixed number of stripes. A stripe is leased to one consumer at a time,
+ * so jobs with the same key are processed sequentially while different stripes are processed in parallel.<br>
+ * Number of objects doesn't depend on number of distinct keys.<br>
+ * <br>
+ * A consumer holds the lease of it's stripe until {@link KeyedJobQueue#done()} or next take().
+ * {@link Worker} and {@link BatchWorker} call done() after processing.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> job class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class KeyedJobQueue<T> implements Queue<T> {
+    /**
+     * default number of stripes
+     */
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    /**
+     * stripes which have jobs and are not leased
+     */
+    private final LinkedBlockingQueue<Stripe<T>> ready = new LinkedBlockingQueue<>();
+    /**
+     * stripe leased by current thread
+     */
+    private final ThreadLocal<Stripe<T>> leased = new ThreadLocal<>();
+    /**
+     * round-robin counter for jobs without key
+     */
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder pending = new LongAdder();
+
+    /**
+     * Constructor ({@link KeyedJobQueue#DEFAULT_STRIPES} stripes)
+     */
+    public KeyedJobQueue() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param stripes number of stripes (rounded up to power of 2)
+     */
+    public KeyedJobQueue(int stripes) {
+        if (stripes < 1 || stripes > (1 << 24)) {
+            throw new IllegalArgumentException("stripes must be between 1 and 2^24 - " + stripes);
+        }
+
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+
+        this.stripes = newStripes(size);
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * @param length length of array
+     * @param <T>    job class
+     * @return new array of stripes
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Stripe<T>[] newStripes(int length) {
+        return (Stripe<T>[]) new Stripe<?>[length];
+    }
+
+    /**
+     * push a job which must be processed after previous jobs of same key
+     *
+     * @param key     ordering key
+     * @param element job to push
+     */
+    public void push(Object key, T element) {
+        if (key == null) {
+            push(element);
+        } else {
+            int hash = key.hashCode();
+            enqueue(stripes[(hash ^ (hash >>> 16)) & mask], element);
+        }
+    }
+
+    /**
+     * push a job without ordering constraint
+     *
+     * @param element job to push
+     */
+    @Override
+    public void push(T element) {
+        enqueue(stripes[next.getAndIncrement() & mask], element);
+    }
+
+    private void enqueue(Stripe<T> stripe, T element) {
+        if (element == null) {
+            throw new NullPointerException("Can't push null");
+        }
+
+        synchronized (stripe) {
+            stripe.jobs.addLast(element);
+            pending.increment();
+
+            if (!stripe.scheduled) {
+                stripe.scheduled = true;
+                ready.offer(stripe);
+            }
+        }
+    }
+
+    /**
+     * Releases the lease of current thread.<br>
+     * Next job of the stripe becomes available to other consumers.<br>
+     */
+    public void done() {
+        Stripe<T> stripe = leased.get();
+
+        if (stripe != null) {
+            leased.remove();
+
+            synchronized (stripe) {
+                if (stripe.jobs.isEmpty()) {
+                    stripe.scheduled = false;
+                } else {
+                    ready.offer(stripe);
+                }
+            }
+        }
+    }
+
+    @Override
+    public T take() {
+        done();
+
+        T result = null;
+        try {
+            while (result == null) {
+                Stripe<T> stripe = ready.take();
+                result = lease(stripe, null, 1);
+            }
+        } catch (InterruptedException ignored) {
+            // just return null
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<T> take(int max, long timeout) {
+        done();
+
+        List<T> result = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        try {
+            while (max > 0 && result.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                Stripe<T> stripe = remaining > 0 ? ready.poll(remaining, TimeUnit.NANOSECONDS) : ready.poll();
+                if (stripe == null) {
+                    break;
+                }
+                lease(stripe, result, max);
+            }
+        } catch (InterruptedException ignored) {
+            // just return what we have
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves jobs of a single stripe to given collection. (never blocks)<br>
+     * Caller holds the lease until {@link KeyedJobQueue#done()}.<br>
+     *
+     * @param target collection to transfer elements into
+     * @param max    maximum number of elements to transfer
+     * @return number of transferred elements
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        done();
+
+        int result = 0;
+
+        Stripe<T> stripe;
+        while (max > 0 && result == 0 && (stripe = ready.poll()) != null) {
+            List<T> jobs = new ArrayList<>();
+            lease(stripe, jobs, max);
+            target.addAll(jobs);
+            result = jobs.size();
+        }
+
+        return result;
+    }
+
+    /**
+     * Takes jobs from a ready stripe and leases it to current thread
+     *
+     * @param stripe ready stripe
+     * @param target collection to transfer jobs into (null: return a single job)
+     * @param max    maximum number of jobs
+     * @return a job if target is null
+     */
+    private T lease(Stripe<T> stripe, Collection<? super T> target, int max) {
+        T result = null;
+        int taken = 0;
+
+        synchronized (stripe) {
+            if (target == null) {
+                result = stripe.jobs.pollFirst();
+                if (result != null) {
+                    taken++;
+                }
+            } else {
+                T aJob;
+                while (taken < max && (aJob = stripe.jobs.pollFirst()) != null) {
+                    target.add(aJob);
+                    taken++;
+                }
+            }
+
+            if (taken == 0) {
+                // cleared while waiting in ready queue
+                stripe.scheduled = false;
+                return null;
+            }
+        }
+
+        pending.add(-taken);
+        leased.set(stripe);
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                int size = stripe.jobs.size();
+                stripe.jobs.clear();
+                pending.add(-size);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) pending.sum();
+    }
+
+    /**
+     * @return number of stripes
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * A sub-queue for keys of same hash
+     *
+     * @param <T> job class
+     */
+    private static class Stripe<T> {
+        final ArrayDeque<T> jobs = new ArrayDeque<>();
+        /**
+         * true if in ready queue or leased
+         */
+        boolean scheduled = false;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * A Group of Workers with per-key ordering.<br>
+ * <br>
+ * Jobs added with same key by {@link KeyedWorkerGroup#addJob(Object, Object)} are processed sequentially
+ * in order of addition, jobs of different keys are processed in parallel by all Workers.<br>
+ * Worker classes are the same as {@link WorkerGroup}'s.<br>
+ *
+ * @param <J> Job Type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ * @see KeyedJobQueue
+ */
+public class KeyedWorkerGroup<J> extends WorkerGroup<J, KeyedJobQueue<J>> {
+    /**
+     * Constructor (uses {@link KeyedJobQueue#DEFAULT_STRIPES} stripes)
+     *
+     * @param workerClass Worker class
+     * @param workerCount Initial number of workers
+     */
+    public KeyedWorkerGroup(final Class<? extends Worker<J>> workerClass, final int workerCount) {
+        this(new KeyedJobQueue<>(), workerClass, workerCount);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param jobQueue    job queue
+     * @param workerClass Worker class
+     * @param workerCount Initial number of workers
+     */
+    public KeyedWorkerGroup(final KeyedJobQueue<J> jobQueue, final Class<? extends Worker<J>> workerClass,
+                            final int workerCount) {
+        super(jobQueue, workerClass, workerCount);
+    }
+
+    /**
+     * Add a job which must be processed after previous jobs of same key
+     *
+     * @param key ordering key (null: no ordering)
+     * @param job job to add
+     */
+    public void addJob(final Object key, final J job) {
+        jobQueue.push(key, job);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * {@link ScalingPolicy} based on Little's law (L = &lambda;W).<br>
+ * <br>
+ * Required workers = arrival rate * mean service time / target utilization
+ * + workers to drain current backlog within target wait time.<br>
+ * If measured wait time is still above target, adds a worker.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class LittlesLawScalingPolicy extends AbstractScalingPolicy {
+    /**
+     * target wait time (nano seconds)
+     */
+    private final long targetWait;
+    /**
+     * target utilization of workers (0 ~ 1)
+     */
+    private final double utilization;
+
+    /**
+     * queued jobs of previous period
+     */
+    private int prevQueued = 0;
+
+    /**
+     * Constructor (80% utilization, no up cooldown, 30s down cooldown)
+     *
+     * @param minWorkers minimum number of workers
+     * @param maxWorkers maximum number of workers
+     * @param targetWait target wait time (msec)
+     */
+    public LittlesLawScalingPolicy(int minWorkers, int maxWorkers, long targetWait) {
+        this(minWorkers, maxWorkers, targetWait, 0.8, 0, 30 * 1000);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minWorkers   minimum number of workers
+     * @param maxWorkers   maximum number of workers
+     * @param targetWait   target wait time (msec)
+     * @param utilization  target utilization of workers (0 ~ 1)
+     * @param upCooldown   minimum time between a change and next scale up (msec)
+     * @param downCooldown minimum time between a change and next scale down (msec)
+     */
+    public LittlesLawScalingPolicy(int minWorkers, int maxWorkers, long targetWait, double utilization,
+                                   long upCooldown, long downCooldown) {
+        super(minWorkers, maxWorkers, upCooldown, downCooldown, 0.9);
+
+        if (targetWait <= 0) {
+            throw new IllegalArgumentException("targetWait must be positive - " + targetWait);
+        }
+        if (utilization <= 0 || utilization > 1) {
+            throw new IllegalArgumentException("utilization must be between 0 and 1 - " + utilization);
+        }
+
+        this.targetWait = targetWait * 1000 * 1000;
+        this.utilization = utilization;
+    }
+
+    @Override
+    protected int desired(Sample sample) {
+        int result = sample.workers;
+
+        double growth = sample.elapsed <= 0 ? 0 : (sample.queued - prevQueued) * 1000.0 / sample.elapsed;
+        prevQueued = sample.queued;
+
+        if (sample.processed == 0 || sample.meanServiceTime <= 0) {
+            if (sample.idle && sample.queued == 0) {
+                reason("idle");
+                result = sample.workers - 1;
+            } else {
+                reason("no samples");
+            }
+        } else {
+            double service = sample.meanServiceTime / 1e9;
+            double arrival = Math.max(0, sample.getThroughput() + growth);
+
+            double busy = arrival * service / utilization;
+            double backlog = sample.queued * service / (targetWait / 1e9);
+            result = (int) Math.ceil(busy + backlog);
+
+            if (sample.meanWaitTime > targetWait && result <= sample.workers) {
+                reason("wait above target");
+                result = sample.workers + 1;
+            } else {
+                reason("arrival=" + (long) arrival + "/s, service=" + sample.meanServiceTime / 1000 + "us");
+            }
+        }
+
+        return result;
+    }
+}
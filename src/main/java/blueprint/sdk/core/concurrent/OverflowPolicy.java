@@ -0,0 +1,38 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.core.concurrent;
+
+/**
+ * What {@link WorkerGroup#addJob(Object)} does when bounded {@link JobQueue} is full
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public enum OverflowPolicy {
+    /**
+     * wait for room (at most overflow timeout), then throw {@link RejectedJobException}
+     */
+    BLOCK,
+    /**
+     * throw {@link RejectedJobException} immediately
+     */
+    REJECT,
+    /**
+     * drop oldest jobs to make room
+     */
+    DROP_OLDEST,
+    /**
+     * process the job on caller's thread
+     */
+    CALLER_RUNS
+}
@@ -0,0 +1,429 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Multi-lane JobQueue.<br>
+ * <br>
+ * {@link Mode#STRICT}: lane 0 has the highest priority. Lower lanes are served only when higher lanes are empty.<br>
+ * {@link Mode#WEIGHTED}: lanes are served by deficit round robin. Each lane gets jobs in proportion to it's weight,
+ * so no lane starves.<br>
+ * <br>
+ * Push and take are O(1) (a bit mask of non-empty lanes is maintained, at most 64 lanes).<br>
+ * Can be used wherever a {@link JobQueue} is expected (WorkerGroup, SpanningWorkerGroup).<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> job class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class PriorityJobQueue<T> extends JobQueue<T> {
+    /**
+     * maximum number of lanes
+     */
+    public static final int MAX_LANES = 64;
+
+    /**
+     * Scheduling mode
+     */
+    public enum Mode {
+        /**
+         * always serve the highest non-empty lane (lower lanes may starve)
+         */
+        STRICT,
+        /**
+         * deficit round robin by lane weights
+         */
+        WEIGHTED
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Mode mode;
+    private final Lane<T>[] lanes;
+    /**
+     * bit mask of non-empty lanes
+     */
+    private long nonEmpty = 0L;
+    /**
+     * lane currently served (WEIGHTED)
+     */
+    private int current = 0;
+    private int size = 0;
+    private int waiters = 0;
+    private boolean disposed = false;
+
+    /**
+     * Constructor<br>
+     * See {@link PriorityJobQueue#newStrictQueue(int)} and {@link PriorityJobQueue#newWeightedQueue(int...)}.<br>
+     *
+     * @param mode    scheduling mode
+     * @param weights weight of each lane (ignored by {@link Mode#STRICT})
+     */
+    public PriorityJobQueue(Mode mode, int... weights) {
+        super();
+
+        if (mode == null) {
+            throw new NullPointerException("mode is null");
+        }
+        if (weights == null || weights.length < 1 || weights.length > MAX_LANES) {
+            throw new IllegalArgumentException("number of lanes must be between 1 and " + MAX_LANES);
+        }
+
+        this.mode = mode;
+        lanes = newLanes(weights.length);
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 1) {
+                throw new IllegalArgumentException("weight must be positive - lane: " + i + ", weight: " + weights[i]);
+            }
+            lanes[i] = new Lane<>(weights[i]);
+        }
+        lanes[0].deficit = lanes[0].weight;
+    }
+
+    /**
+     * @param lanes number of lanes (1 ~ 64)
+     * @param <T>   job class
+     * @return new queue of {@link Mode#STRICT}
+     */
+    public static <T> PriorityJobQueue<T> newStrictQueue(int lanes) {
+        return new PriorityJobQueue<>(Mode.STRICT, filled(lanes));
+    }
+
+    /**
+     * @param weights weight of each lane (jobs per round, positive)
+     * @param <T>     job class
+     * @return new queue of {@link Mode#WEIGHTED}
+     */
+    public static <T> PriorityJobQueue<T> newWeightedQueue(int... weights) {
+        return new PriorityJobQueue<>(Mode.WEIGHTED, weights);
+    }
+
+    /**
+     * @param length length of array
+     * @param <T>    job class
+     * @return new array of lanes
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Lane<T>[] newLanes(int length) {
+        return (Lane<T>[]) new Lane<?>[length];
+    }
+
+    private static int[] filled(int lanes) {
+        if (lanes < 1 || lanes > MAX_LANES) {
+            throw new IllegalArgumentException("number of lanes must be between 1 and " + MAX_LANES);
+        }
+
+        int[] result = new int[lanes];
+        for (int i = 0; i < lanes; i++) {
+            result[i] = 1;
+        }
+        return result;
+    }
+
+    /**
+     * push a job to the last (lowest priority) lane
+     *
+     * @param aJob job to push
+     */
+    @Override
+    public void push(final T aJob) {
+        push(lanes.length - 1, aJob);
+    }
+
+    /**
+     * push a job to given lane
+     *
+     * @param lane lane index (0 ~ lanes - 1)
+     * @param aJob job to push
+     */
+    public void push(final int lane, final T aJob) {
+        if (aJob == null) {
+            throw new NullPointerException("Can't push null");
+        }
+        if (lane < 0 || lane >= lanes.length) {
+            throw new IllegalArgumentException("invalid lane - " + lane);
+        }
+
+        lock.lock();
+        try {
+            if (disposed) {
+                throw new IllegalStateException("Can't push into disposed queue");
+            }
+
+            Lane<T> target = lanes[lane];
+            target.jobs.addLast(aJob);
+            target.stamps.add(isStamping() ? System.nanoTime() : 0L);
+            enqueued();
+            nonEmpty |= 1L << lane;
+            size++;
+
+            if (waiters > 0) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T take() {
+        T result = null;
+
+        lock.lock();
+        try {
+            waiters++;
+            try {
+                while (size == 0 && !disposed) {
+                    notEmpty.await();
+                }
+            } catch (InterruptedException ignored) {
+                // just return null
+            } finally {
+                waiters--;
+            }
+
+            if (size > 0) {
+                result = dequeue();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<T> take(int max, long timeout) {
+        List<T> result = new ArrayList<>();
+
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+            waiters++;
+            try {
+                while (size == 0 && !disposed && remaining > 0) {
+                    remaining = notEmpty.awaitNanos(remaining);
+                }
+            } catch (InterruptedException ignored) {
+                // just return what we have
+            } finally {
+                waiters--;
+            }
+
+            drain(result, max);
+        } finally {
+            lock.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        lock.lock();
+        try {
+            return drain(target, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * must hold the lock
+     */
+    private int drain(Collection<? super T> target, int max) {
+        int result = 0;
+
+        while (result < max && size > 0) {
+            target.add(dequeue());
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * removes next job by scheduling mode. must hold the lock and size > 0.
+     *
+     * @return next job
+     */
+    private T dequeue() {
+        int index;
+
+        if (mode == Mode.STRICT) {
+            index = Long.numberOfTrailingZeros(nonEmpty);
+        } else {
+            index = current;
+            // skip exhausted or empty lanes, at most one round
+            while (lanes[index].deficit <= 0 || (nonEmpty & (1L << index)) == 0) {
+                lanes[index].deficit = 0;
+                index = nextNonEmpty(index);
+                lanes[index].deficit += lanes[index].weight;
+            }
+            lanes[index].deficit--;
+            current = index;
+        }
+
+        Lane<T> lane = lanes[index];
+        T result = lane.jobs.pollFirst();
+        dequeued(lane.stamps.remove());
+
+        if (lane.jobs.isEmpty()) {
+            nonEmpty &= ~(1L << index);
+        }
+        size--;
+
+        return result;
+    }
+
+    /**
+     * @param index current lane
+     * @return next non-empty lane after current one (round robin)
+     */
+    private int nextNonEmpty(int index) {
+        int next = index + 1;
+        long upper = next >= MAX_LANES ? 0L : nonEmpty & (-1L << next);
+
+        return Long.numberOfTrailingZeros(upper != 0L ? upper : nonEmpty);
+    }
+
+    /**
+     * @return size of queue
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param lane lane index
+     * @return number of jobs in given lane
+     */
+    public int size(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].jobs.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of lanes
+     */
+    public int getLanes() {
+        return lanes.length;
+    }
+
+    /**
+     * @return scheduling mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public boolean isIdle() {
+        lock.lock();
+        try {
+            return disposed || waiters > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        lock.lock();
+        try {
+            return disposed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release all blocked Threads on take() and dispose queue.
+     */
+    @Override
+    public void dispose() {
+        lock.lock();
+        try {
+            disposed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * clears queue
+     */
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Lane<T> lane : lanes) {
+                lane.jobs.clear();
+                lane.stamps.clear();
+            }
+            nonEmpty = 0L;
+            size = 0;
+
+            resetProcessedJobs();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    protected void finalize() throws Throwable {
+        clear();
+
+        super.finalize();
+    }
+
+    /**
+     * A lane of PriorityJobQueue
+     *
+     * @param <T> job class
+     */
+    private static class Lane<T> {
+        final ArrayDeque<T> jobs = new ArrayDeque<>();
+        final Stamps stamps = new Stamps();
+        final int weight;
+        /**
+         * remaining quantum of current round
+         */
+        int deficit = 0;
+
+        Lane(int weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.core.concurrent;
+
+/**
+ * A job is not accepted by {@link WorkerGroup} (queue is full)
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class RejectedJobException extends RuntimeException {
+    private static final long serialVersionUID = -6204951875325046127L;
+
+    public RejectedJobException(String message) {
+        super(message);
+    }
+
+    public RejectedJobException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, bounded, multi-producer/multi-consumer JobQueue.<br>
+ * Array based ring buffer with sequence numbered slots. No allocation on push/take.<br>
+ * <br>
+ * {@link RingBufferJobQueue#push(Object)} waits with given {@link WaitStrategy} while the queue is full,
+ * {@link RingBufferJobQueue#take()} waits while the queue is empty.<br>
+ * Can be used wherever a {@link JobQueue} is expected (WorkerGroup, SpanningWorkerGroup).<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> job class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class RingBufferJobQueue<T> extends JobQueue<T> {
+    /**
+     * slots
+     */
+    private final Object[] buffer;
+    /**
+     * sequence number of each slot
+     */
+    private final AtomicLongArray sequences;
+    /**
+     * enqueue timestamp of each slot (System.nanoTime(), 0 = not counted)
+     */
+    private final long[] stamps;
+    private final int mask;
+    /**
+     * next position to take
+     */
+    private final PaddedAtomicLong head = new PaddedAtomicLong();
+    /**
+     * next position to push
+     */
+    private final PaddedAtomicLong tail = new PaddedAtomicLong();
+    /**
+     * number of consumers waiting on empty queue
+     */
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final WaitStrategy waitStrategy;
+    /**
+     * flag for disposed queue
+     */
+    private volatile boolean disposed = false;
+
+    /**
+     * Constructor (uses {@link WaitStrategy#PARK})
+     *
+     * @param capacity maximum number of jobs (rounded up to power of 2)
+     */
+    public RingBufferJobQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity     maximum number of jobs (rounded up to power of 2)
+     * @param waitStrategy strategy for blocked producers and consumers
+     */
+    public RingBufferJobQueue(int capacity, WaitStrategy waitStrategy) {
+        super();
+
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30 - " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy is null");
+        }
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        buffer = new Object[size];
+        stamps = new long[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Push a job without waiting
+     *
+     * @param aJob job to push
+     * @return false if queue is full
+     */
+    @Override
+    public boolean offer(final T aJob) {
+        if (aJob == null) {
+            throw new NullPointerException("Can't push null");
+        }
+        if (disposed) {
+            throw new IllegalStateException("Can't push into disposed queue");
+        }
+
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long delta = sequences.get(index) - pos;
+
+            if (delta == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[index] = aJob;
+                    stamps[index] = isStamping() ? System.nanoTime() : 0L;
+                    // publish
+                    sequences.lazySet(index, pos + 1);
+                    enqueued();
+                    return true;
+                }
+                pos = tail.get();
+            } else if (delta < 0) {
+                // full
+                return false;
+            } else {
+                // another producer took this slot
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Push a job, waits while queue is full at most given timeout
+     *
+     * @param aJob    job to push
+     * @param timeout maximum wait time (msec)
+     * @return false if queue is still full after timeout (or interrupted)
+     */
+    @Override
+    public boolean offer(final T aJob, final long timeout) {
+        boolean result = offer(aJob);
+
+        if (!result) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            int attempts = 0;
+            while (!(result = offer(aJob))) {
+                if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+
+                waitStrategy.idle(attempts);
+                if (attempts < Integer.MAX_VALUE) {
+                    attempts++;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Push a job. If queue is full, oldest jobs are dropped to make room.
+     *
+     * @param aJob job to push
+     * @return dropped jobs (oldest first)
+     */
+    @Override
+    public List<T> pushDroppingOldest(final T aJob) {
+        List<T> result = Collections.emptyList();
+
+        while (!offer(aJob)) {
+            T dropped = poll();
+            if (dropped != null) {
+                if (result.isEmpty()) {
+                    result = new ArrayList<>();
+                }
+                result.add(dropped);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a job without waiting
+     *
+     * @return a job or null(empty)
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long delta = sequences.get(index) - (pos + 1);
+
+            if (delta == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    T result = (T) buffer[index];
+                    long stamp = stamps[index];
+                    buffer[index] = null;
+                    // release slot for next lap
+                    sequences.lazySet(index, pos + mask + 1);
+
+                    dequeued(stamp);
+                    return result;
+                }
+                pos = head.get();
+            } else if (delta < 0) {
+                // empty
+                return null;
+            } else {
+                // another consumer took this slot
+                pos = head.get();
+            }
+        }
+    }
+
+    /**
+     * push a job Object to queue.<br>
+     * Waits while queue is full.<br>
+     *
+     * @param aJob job to push
+     */
+    @Override
+    public void push(final T aJob) {
+        int attempts = 0;
+        while (!offer(aJob)) {
+            waitStrategy.idle(attempts);
+            if (attempts < Integer.MAX_VALUE) {
+                attempts++;
+            }
+        }
+    }
+
+    /**
+     * pops a job Object from queue.<br>
+     * Waits while queue is empty.<br>
+     * An interrupt is consumed (cleared), so that next call waits again.<br>
+     *
+     * @return a job Object or null(disposed or interrupted)
+     */
+    @Override
+    public T take() {
+        T result = poll();
+
+        if (result == null) {
+            waiters.incrementAndGet();
+            try {
+                int attempts = 0;
+                while ((result = poll()) == null) {
+                    if (disposed || Thread.interrupted()) {
+                        break;
+                    }
+
+                    waitStrategy.idle(attempts);
+                    if (attempts < Integer.MAX_VALUE) {
+                        attempts++;
+                    }
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<T> take(int max, long timeout) {
+        List<T> result = new ArrayList<>();
+
+        if (drainTo(result, max) == 0 && max > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            waiters.incrementAndGet();
+            try {
+                int attempts = 0;
+                while (drainTo(result, max) == 0) {
+                    if (disposed || Thread.interrupted() || System.nanoTime() - deadline >= 0) {
+                        break;
+                    }
+
+                    waitStrategy.idle(attempts);
+                    if (attempts < Integer.MAX_VALUE) {
+                        attempts++;
+                    }
+                }
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        int result = 0;
+
+        T aJob;
+        while (result < max && (aJob = poll()) != null) {
+            target.add(aJob);
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return size of queue
+     */
+    @Override
+    public int size() {
+        // read head first, so that result never goes below 0 unless a consumer passed by
+        long first = head.get();
+        long size = tail.get() - first;
+
+        if (size < 0) {
+            size = 0;
+        } else if (size > buffer.length) {
+            size = buffer.length;
+        }
+
+        return (int) size;
+    }
+
+    /**
+     * @return maximum number of jobs
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    @Override
+    public boolean isIdle() {
+        return disposed || waiters.get() > 0;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Release all blocked Threads on {@link RingBufferJobQueue#take()} and dispose queue.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+
+    /**
+     * clears queue
+     */
+    @Override
+    public void clear() {
+        //noinspection StatementWithEmptyBody
+        while (poll() != null) {
+            // drain
+        }
+
+        resetProcessedJobs();
+    }
+
+    @Override
+    protected void finalize() throws Throwable {
+        clear();
+
+        super.finalize();
+    }
+
+    /**
+     * {@link AtomicLong} padded to its own cache line, so that head and tail don't false share.
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    @SuppressWarnings("unused")
+    static final class PaddedAtomicLong extends AtomicLong {
+        private static final long serialVersionUID = -3415778863941386253L;
+
+        volatile long p1, p2, p3, p4, p5, p6, p7 = 7L;
+
+        /**
+         * prevents padding from being optimized away
+         *
+         * @return sum of paddings
+         */
+        long sumPaddings() {
+            return p1 + p2 + p3 + p4 + p5 + p6 + p7;
+        }
+    }
+}
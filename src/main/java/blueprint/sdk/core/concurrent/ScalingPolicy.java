@@ -0,0 +1,96 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * Decides number of workers for {@link SpanningWorkerGroup}.<br>
+ * Called once per sampling period with metrics of that period.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public interface ScalingPolicy {
+    /**
+     * @param sample metrics of last period
+     * @return desired number of workers
+     */
+    int decide(Sample sample);
+
+    /**
+     * Metrics of a sampling period
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    class Sample {
+        /**
+         * time of sampling (System.currentTimeMillis())
+         */
+        public final long timestamp;
+        /**
+         * length of period (msec)
+         */
+        public final long elapsed;
+        /**
+         * current number of workers
+         */
+        public final int workers;
+        /**
+         * number of queued jobs at the end of period
+         */
+        public final int queued;
+        /**
+         * number of processed jobs in period
+         */
+        public final long processed;
+        /**
+         * mean enqueue-to-start latency (nano seconds)
+         */
+        public final long meanWaitTime;
+        /**
+         * mean processing time (nano seconds)
+         */
+        public final long meanServiceTime;
+        /**
+         * true if some consumers were waiting on empty queue
+         */
+        public final boolean idle;
+
+        public Sample(long timestamp, long elapsed, int workers, int queued, long processed, long meanWaitTime,
+                      long meanServiceTime, boolean idle) {
+            this.timestamp = timestamp;
+            this.elapsed = elapsed;
+            this.workers = workers;
+            this.queued = queued;
+            this.processed = processed;
+            this.meanWaitTime = meanWaitTime;
+            this.meanServiceTime = meanServiceTime;
+            this.idle = idle;
+        }
+
+        /**
+         * @return processed jobs per second
+         */
+        public double getThroughput() {
+            return elapsed <= 0 ? 0 : processed * 1000.0 / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return "workers=" + workers + ", queued=" + queued + ", throughput=" + (long) getThroughput()
+                    + "/s, wait=" + meanWaitTime / 1000000 + "ms, service=" + meanServiceTime / 1000000
+                    + "ms, idle=" + idle;
+        }
+    }
+}
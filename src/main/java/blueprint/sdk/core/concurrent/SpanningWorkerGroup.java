@@ -13,7 +13,10 @@
 
 package blueprint.sdk.core.concurrent;
 
+import blueprint.sdk.util.Counter;
 import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +25,7 @@ import org.slf4j.LoggerFactory;
  * Maintains JobQueue and Workers<br>
  * <br>
  * Provides automatic thread spanning feature, call start() method.<br>
+ * Number of workers is decided by a {@link ScalingPolicy} with per-job wait time and service time.<br>
  *
  * @author lempel@gmail.com
  * @since 2008. 11. 25.
@@ -31,12 +35,34 @@ public class SpanningWorkerGroup<J, Q extends JobQueue<J>> extends WorkerGroup<J
      * check interval (msec)
      */
     private static final int INTERVAL = 5000;
+    /**
+     * target wait time of default policy (msec)
+     */
+    private static final long DEFAULT_TARGET_WAIT = 100;
     private static final Logger L = LoggerFactory.getLogger(SpanningWorkerGroup.class);
-    private long maxThroughput = 0;
+    private final ScalingPolicy policy;
+
+    /**
+     * number of decisions to add workers
+     */
+    private final Counter grows = new Counter();
+    /**
+     * number of decisions to remove workers
+     */
+    private final Counter shrinks = new Counter();
+    /**
+     * sample of last period (null until first decision)
+     */
+    private volatile ScalingPolicy.Sample lastSample = null;
+    /**
+     * last decided number of workers
+     */
+    private volatile int lastTarget;
 
     /**
      * Constructor<br>
      * Creates Workers and JobQueue<br>
+     * Uses {@link AimdScalingPolicy} with 1 ~ workerCount * 10 workers.<br>
      *
      * @param jobQueue    job queue
      * @param workerClass Worker class
@@ -44,8 +70,30 @@ public class SpanningWorkerGroup<J, Q extends JobQueue<J>> extends WorkerGroup<J
      */
     @SuppressWarnings("WeakerAccess")
     public SpanningWorkerGroup(final Q jobQueue, final Class<? extends Worker<J>> workerClass, final int workerCount) {
+        this(jobQueue, workerClass, workerCount,
+                new AimdScalingPolicy(1, Math.max(workerCount, 1) * 10, DEFAULT_TARGET_WAIT));
+    }
+
+    /**
+     * Constructor<br>
+     * Creates Workers and JobQueue<br>
+     *
+     * @param jobQueue    job queue
+     * @param workerClass Worker class
+     * @param workerCount Initial number of workers
+     * @param policy      decides number of workers
+     */
+    @SuppressWarnings("WeakerAccess")
+    public SpanningWorkerGroup(final Q jobQueue, final Class<? extends Worker<J>> workerClass, final int workerCount,
+                               final ScalingPolicy policy) {
         super(jobQueue, workerClass, workerCount);
 
+        if (policy == null) {
+            throw new NullPointerException("policy is null");
+        }
+        this.policy = policy;
+        lastTarget = workerCount;
+
         Refiller refiller = new Refiller();
         refiller.start();
     }
@@ -58,12 +106,6 @@ public class SpanningWorkerGroup<J, Q extends JobQueue<J>> extends WorkerGroup<J
             }
 
             running = true;
-
-            // if initial number of workers are too small, increase it first
-            if (workers.size() * THREAD_INC_RATIO < 1) {
-                int newThreads = (int) (1.0f / THREAD_INC_RATIO) - workers.size();
-                addWorkers(newThreads);
-            }
         } catch (Exception e) {
             L.error("Can't create workers. Terminating " + getClass().getSimpleName(), e);
         }
@@ -99,28 +141,82 @@ public class SpanningWorkerGroup<J, Q extends JobQueue<J>> extends WorkerGroup<J
      * @param elapsed elapsed time in msec
      */
     private void spanWorkers(long elapsed) {
-        // convert msec to sec with rounding
-        elapsed = (elapsed + 500) / 1000;
-
-        // calculate throughput & reset counter
-        long throughtput = jobQueue.getProcessedJobs() / elapsed;
+        // take a sample & reset counters
+        ScalingPolicy.Sample sample = new ScalingPolicy.Sample(System.currentTimeMillis(), elapsed, workers.size(),
+                jobQueue.size(), jobQueue.getProcessedJobs(), jobQueue.getMeanWaitTime(),
+                jobQueue.getMeanServiceTime(), jobQueue.isIdle());
         jobQueue.resetProcessedJobs();
 
-        int newThreads = (int) (THREAD_INC_RATIO * workers.size());
-        if (jobQueue.isIdle()) {
-            // decrease the number of threads
-            removeWorkers(newThreads);
-        } else {
-            if (throughtput >= maxThroughput) {
-                maxThroughput = throughtput;
-
-                // increase the number of threads
-                addWorkers(newThreads);
-            } else {
-                // decrease the number of threads
-                removeWorkers(newThreads);
-            }
+        int target;
+        try {
+            target = policy.decide(sample);
+        } catch (Exception e) {
+            L.error("scaling policy failed - " + policy, e);
+            return;
+        }
+
+        lastSample = sample;
+        lastTarget = target;
+
+        if (target > sample.workers) {
+            grows.increase();
+            addWorkers(target - sample.workers);
+        } else if (target < sample.workers) {
+            shrinks.increase();
+            removeWorkers(sample.workers - target);
         }
+
+        L.debug("span workers - {} -> {}, {}", sample, target, policy);
+    }
+
+    /**
+     * @return policy which decides number of workers
+     */
+    public ScalingPolicy getScalingPolicy() {
+        return policy;
+    }
+
+    /**
+     * Registers metrics of {@link WorkerGroup} and decisions of scaling policy as [prefix].policy.<br>
+     * Wait time and service time are means of last period (nano seconds).<br>
+     * Metrics of policy itself are registered too, if it's {@link Instrumented}.<br>
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names
+     */
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        super.registerMetrics(registry, prefix);
+
+        String policyPrefix = prefix + ".policy";
+        registry.gauge(policyPrefix + ".target", () -> lastTarget);
+        registry.gauge(policyPrefix + ".decision", () -> {
+            ScalingPolicy.Sample sample = lastSample;
+            return sample == null ? 0 : lastTarget - sample.workers;
+        });
+        registry.register(policyPrefix + ".grows", grows);
+        registry.register(policyPrefix + ".shrinks", shrinks);
+        registry.gauge(policyPrefix + ".waitTime", () -> {
+            ScalingPolicy.Sample sample = lastSample;
+            return sample == null ? 0 : sample.meanWaitTime;
+        });
+        registry.gauge(policyPrefix + ".serviceTime", () -> {
+            ScalingPolicy.Sample sample = lastSample;
+            return sample == null ? 0 : sample.meanServiceTime;
+        });
+        registry.gauge(policyPrefix + ".throughput", () -> {
+            ScalingPolicy.Sample sample = lastSample;
+            return sample == null ? 0 : (long) sample.getThroughput();
+        });
+
+        if (policy instanceof Instrumented) {
+            ((Instrumented) policy).registerMetrics(registry, policyPrefix);
+        }
+    }
+
+    @Override
+    public String getActivity() {
+        return super.getActivity() + ", policy=" + policy;
     }
 
     /**
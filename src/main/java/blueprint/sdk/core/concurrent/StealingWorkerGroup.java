@@ -0,0 +1,119 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Group of Workers with work-stealing.<br>
+ * Each Worker owns a local deque of {@link WorkStealingQueue}.<br>
+ * <br>
+ * Jobs added by {@link Worker#addJob(Object)} stay in the Worker's own deque,
+ * jobs added by {@link StealingWorkerGroup#addJob(Object)} are spread round-robin.<br>
+ * Idle Workers steal from the tails of their peers.<br>
+ * Worker classes are the same as {@link WorkerGroup}'s.<br>
+ *
+ * @param <J> Job Type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class StealingWorkerGroup<J> extends WorkerGroup<J, WorkStealingQueue<J>> {
+    /**
+     * Constructor
+     *
+     * @param workerClass Worker class
+     * @param workerCount Initial number of workers
+     */
+    public StealingWorkerGroup(final Class<? extends Worker<J>> workerClass, final int workerCount) {
+        this(new WorkStealingQueue<>(), workerClass, workerCount);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param jobQueue    job queue
+     * @param workerClass Worker class
+     * @param workerCount Initial number of workers
+     */
+    public StealingWorkerGroup(final WorkStealingQueue<J> jobQueue, final Class<? extends Worker<J>> workerClass,
+                               final int workerCount) {
+        super(jobQueue, workerClass, workerCount);
+    }
+
+    @Override
+    protected void newWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+            InvocationTargetException {
+        WorkStealingQueue<J>.Local local = jobQueue.newLocal();
+
+        Worker<J> aWorker;
+        try {
+            aWorker = createWorker(local);
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException | RuntimeException e) {
+            jobQueue.retire(local);
+            throw e;
+        }
+
+        workers.add(aWorker);
+        aWorker.start();
+    }
+
+    @Override
+    void maintainWorkers() {
+        synchronized (workers) {
+            // hand over jobs of dead workers before replacing them
+            for (Worker<J> worker : workers) {
+                if (worker.isTerminated()) {
+                    retire(worker);
+                }
+            }
+
+            super.maintainWorkers();
+        }
+    }
+
+    @Override
+    void removeWorkers(int count) {
+        synchronized (workers) {
+            List<Worker<J>> removed = new ArrayList<>(workers);
+            super.removeWorkers(count);
+            removed.removeAll(workers);
+
+            for (Worker<J> worker : removed) {
+                retire(worker);
+            }
+        }
+    }
+
+    /**
+     * Unregisters local deque of given worker and redistributes it's jobs
+     *
+     * @param worker removed or dead worker
+     */
+    @SuppressWarnings("unchecked")
+    private void retire(Worker<J> worker) {
+        if (worker.jobQueue instanceof WorkStealingQueue.Local) {
+            jobQueue.retire((WorkStealingQueue<J>.Local) worker.jobQueue);
+        }
+    }
+
+    @Override
+    public void terminate() {
+        super.terminate();
+
+        jobQueue.dispose();
+    }
+}
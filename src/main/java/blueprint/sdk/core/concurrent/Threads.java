@@ -0,0 +1,51 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * Creates Threads for Workers.<br>
+ * <br>
+ * This is the Java 8 version. Virtual threads are not available, so platform daemon threads are created instead.<br>
+ * Java 21+ version is in src/main/java21 (Multi-Release JAR).<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public final class Threads {
+    private Threads() {
+    }
+
+    /**
+     * @return true if current runtime supports virtual threads
+     */
+    public static boolean isVirtualSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an unstarted Thread
+     *
+     * @param task    task to run
+     * @param name    name of thread
+     * @param virtual true: virtual thread (if supported), false: platform daemon thread
+     * @return new Thread
+     */
+    @SuppressWarnings("unused")
+    public static Thread newThread(Runnable task, String name, boolean virtual) {
+        Thread result = new Thread(task);
+        result.setName(name);
+        result.setDaemon(true);
+        return result;
+    }
+}
@@ -13,8 +13,9 @@
 
 package blueprint.sdk.core.concurrent;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,36 +23,69 @@ import org.slf4j.LoggerFactory;
 import blueprint.sdk.util.Terminatable;
 
 /**
- * Checks registered Terminatables and terminates timed-out or invalid ones
+ * Checks registered Terminatables and terminates timed-out or invalid ones<br>
+ * <br>
+ * Deadlines are kept in a {@link TimingWheel}, so that updateTimestamp/remove are O(1)
+ * and each tick only visits expiring entries.<br>
+ * {@link TimeoutHandler#updateTimestamp(Terminatable)} just updates a timestamp.
+ * Stale deadlines are rescheduled lazily when they come up.<br>
+ * Invalid Terminatables are terminated when their deadline comes up, not on next check.<br>
  *
  * @author lempel@gmail.com
  * @since 2007. 07. 20
  */
 public final class TimeoutHandler implements Terminatable, Runnable {
     private static final Logger L = LoggerFactory.getLogger(WorkerGroup.class);
+    /**
+     * maximum number of wheel buckets
+     */
+    private static final int MAX_BUCKETS = 1 << 16;
     /**
      * timeout (msec)
      */
-    private final int timeout;
+    private final long timeout;
     /**
      * check interval (msec)
      */
-    private final int interval;
-    private transient Hashtable<Terminatable, Long> map = new Hashtable<>();
+    private final long interval;
+    private final TimingWheel<Entry> wheel;
+    private transient Map<Terminatable, Entry> map = new ConcurrentHashMap<>();
     private transient boolean running = false;
     private transient boolean terminated = false;
 
-    private TimeoutHandler(final int timeout, final int interval) {
-        L.info("creating timeout handler - timeout: " + timeout + "s, interval: " + timeout + "s");
+    private TimeoutHandler(final long timeout, final long interval, final TimeUnit unit) {
+        L.info("creating timeout handler - timeout: " + timeout + " " + unit + ", interval: " + interval + " " + unit);
 
-        this.timeout = timeout * 1000;
-        this.interval = interval * 1000;
+        this.timeout = unit.toMillis(timeout);
+        this.interval = Math.max(1, unit.toMillis(interval));
+        if (this.timeout <= 0) {
+            throw new IllegalArgumentException("timeout must be positive - " + timeout + " " + unit);
+        }
 
-        L.info("timeout handler created - timeout: " + timeout + "s, _timeout: " + interval + "s");
+        // one revolution covers timeout if possible
+        wheel = new TimingWheel<>(this.interval, TimeUnit.MILLISECONDS,
+                (int) Math.min(MAX_BUCKETS, this.timeout / this.interval + 1));
+
+        L.info("timeout handler created - timeout: " + this.timeout + "ms, interval: " + this.interval + "ms");
     }
 
+    /**
+     * @param timeout  timeout (sec)
+     * @param interval check interval (sec)
+     * @return started TimeoutHandler
+     */
     public static TimeoutHandler newTimeoutHandler(final int timeout, final int interval) {
-        TimeoutHandler result = new TimeoutHandler(timeout, interval);
+        return newTimeoutHandler(timeout, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param timeout  timeout
+     * @param interval check interval (tick resolution)
+     * @param unit     time unit of timeout and interval
+     * @return started TimeoutHandler
+     */
+    public static TimeoutHandler newTimeoutHandler(final long timeout, final long interval, final TimeUnit unit) {
+        TimeoutHandler result = new TimeoutHandler(timeout, interval, unit);
         result.start();
         return result;
     }
@@ -63,9 +97,20 @@ public final class TimeoutHandler implements Terminatable, Runnable {
      * @param target target to update
      */
     public void updateTimestamp(Terminatable target) {
-        map.put(target, System.currentTimeMillis());
+        long now = System.currentTimeMillis();
+
+        Entry entry = map.get(target);
+        if (entry == null) {
+            Entry newEntry = new Entry(target, now);
+            entry = map.putIfAbsent(target, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+                entry.timeout = wheel.schedule(entry, timeout, TimeUnit.MILLISECONDS);
+            }
+        }
+        entry.timestamp = now;
 
-        L.debug("updateTimestamp - <" + target + ", " + map.get(target) + ">");
+        L.debug("updateTimestamp - <{}, {}>", target, now);
     }
 
     /**
@@ -74,7 +119,10 @@ public final class TimeoutHandler implements Terminatable, Runnable {
      * @param con target to remove
      */
     public void remove(Terminatable con) {
-        map.remove(con);
+        Entry entry = map.remove(con);
+        if (entry != null) {
+            entry.cancel();
+        }
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -96,9 +144,8 @@ public final class TimeoutHandler implements Terminatable, Runnable {
     public void terminate() {
         running = false;
 
-        Enumeration<Terminatable> enu = map.keys();
-        while (enu.hasMoreElements()) {
-            enu.nextElement().terminate();
+        for (Terminatable target : map.keySet()) {
+            target.terminate();
         }
         map.clear();
     }
@@ -114,50 +161,70 @@ public final class TimeoutHandler implements Terminatable, Runnable {
                 L.error("oh my fuckin got!");
             }
 
-            long currentTime = System.currentTimeMillis();
-
-            Enumeration<Terminatable> enu = map.keys();
-            long count = 0;
-            while (enu.hasMoreElements()) {
-                Terminatable key = enu.nextElement();
-                if (key.isValid()) {
-                    long timestamp = map.get(key);
-
-                    // close & cancel timed-out keys
-                    if (currentTime - timestamp >= getTimeout()) {
-                        key.terminate();
-                        count++;
-                    }
-                } else {
-                    key.terminate();
-                    map.remove(key);
-                }
-            }
+            int count = wheel.expire(this::expire);
 
             if (count > 0) {
-                L.debug(count + " connections are timed out (" + map.size() + " connections)");
+                L.debug(count + " deadlines are checked (" + map.size() + " connections)");
             }
         }
 
+        wheel.clear(null);
         terminated = true;
 
         L.info("timeout handler stopped - timeout: " + timeout + " interval: " + interval);
     }
 
+    /**
+     * Terminates timed-out or invalid target, or reschedules it if timestamp is updated.
+     *
+     * @param entry entry of which deadline came up
+     */
+    private void expire(Entry entry) {
+        // removed or replaced
+        if (map.get(entry.target) != entry) {
+            return;
+        }
+
+        long elapsed = System.currentTimeMillis() - entry.timestamp;
+        if (!entry.target.isValid() || elapsed >= getTimeout()) {
+            map.remove(entry.target, entry);
+            entry.target.terminate();
+        } else {
+            entry.timeout = wheel.schedule(entry, getTimeout() - elapsed, TimeUnit.MILLISECONDS);
+            if (map.get(entry.target) != entry) {
+                // removed while rescheduling
+                entry.cancel();
+            }
+        }
+    }
+
     public boolean isRunning() {
         return running;
     }
 
+    /**
+     * @return timeout (msec)
+     */
     @SuppressWarnings("WeakerAccess")
-    public int getTimeout() {
+    public long getTimeout() {
         return timeout;
     }
 
+    /**
+     * @return check interval (msec)
+     */
     @SuppressWarnings("WeakerAccess")
-    public int getInterval() {
+    public long getInterval() {
         return interval;
     }
 
+    /**
+     * @return number of tracked Terminatables
+     */
+    public int size() {
+        return map.size();
+    }
+
     @Override
     protected void finalize() throws Throwable {
         map.clear();
@@ -165,4 +232,28 @@ public final class TimeoutHandler implements Terminatable, Runnable {
 
         super.finalize();
     }
-}
\ No newline at end of file
+
+    /**
+     * A tracked Terminatable
+     */
+    private static final class Entry {
+        final Terminatable target;
+        /**
+         * last update (msec)
+         */
+        volatile long timestamp;
+        volatile TimingWheel.Timeout<Entry> timeout;
+
+        Entry(Terminatable target, long timestamp) {
+            this.target = target;
+            this.timestamp = timestamp;
+        }
+
+        void cancel() {
+            TimingWheel.Timeout<Entry> current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.core.concurrent;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel.<br>
+ * <br>
+ * Deadlines are hashed into buckets by tick. Schedule and cancel are O(1) from any thread.
+ * Deadlines beyond one revolution wait for remaining rounds in their bucket.<br>
+ * <br>
+ * Not a Thread. Owner must call {@link TimingWheel#expire(Consumer)} periodically (every tick or so),
+ * and only one thread at a time may call it.<br>
+ * Expiration is accurate to tick duration.<br>
+ *
+ * @param <T> target class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class TimingWheel<T> {
+    /**
+     * maximum number of buckets
+     */
+    public static final int MAX_BUCKETS = 1 << 20;
+
+    private final long tickNanos;
+    private final Bucket<T>[] buckets;
+    private final int mask;
+    /**
+     * newly scheduled timeouts, moved to buckets by owner thread
+     */
+    private final ConcurrentLinkedQueue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * cancelled timeouts, removed from buckets by owner thread
+     */
+    private final ConcurrentLinkedQueue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+    /**
+     * number of scheduled timeouts
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * origin of deadlines (System.nanoTime())
+     */
+    private final long origin;
+    /**
+     * next tick to process (owner thread only)
+     */
+    private long tick = 0L;
+
+    /**
+     * Constructor
+     *
+     * @param tickDuration tick duration (resolution)
+     * @param unit         time unit of tickDuration
+     * @param buckets      number of buckets per revolution (rounded up to power of 2)
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, int buckets) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive - " + tickDuration);
+        }
+        if (buckets < 1 || buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("buckets must be between 1 and " + MAX_BUCKETS + " - " + buckets);
+        }
+
+        int length = 1;
+        while (length < buckets) {
+            length <<= 1;
+        }
+
+        this.buckets = newBuckets(length);
+        for (int i = 0; i < length; i++) {
+            this.buckets[i] = new Bucket<>();
+        }
+        mask = length - 1;
+        tickNanos = unit.toNanos(tickDuration);
+        origin = System.nanoTime();
+    }
+
+    /**
+     * @param length length of array
+     * @param <T>    target class
+     * @return new array of buckets
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Bucket<T>[] newBuckets(int length) {
+        return (Bucket<T>[]) new Bucket<?>[length];
+    }
+
+    /**
+     * Schedules a target (thread safe)
+     *
+     * @param target target to expire
+     * @param delay  delay
+     * @param unit   time unit of delay
+     * @return handle to cancel
+     */
+    public Timeout<T> schedule(T target, long delay, TimeUnit unit) {
+        if (target == null) {
+            throw new NullPointerException("target is null");
+        }
+
+        Timeout<T> result = new Timeout<>(this, target, System.nanoTime() - origin + unit.toNanos(Math.max(0, delay)));
+        size.incrementAndGet();
+        pending.add(result);
+
+        return result;
+    }
+
+    /**
+     * Expires all timeouts of elapsed ticks.<br>
+     * Must be called by one thread at a time.<br>
+     *
+     * @param handler handles expired targets
+     * @return number of expired targets
+     */
+    public int expire(Consumer<? super T> handler) {
+        int result = 0;
+        long now = System.nanoTime() - origin;
+
+        removeCancelled();
+        transferPending();
+
+        // process every tick which has ended
+        while ((tick + 1) * tickNanos <= now) {
+            result += buckets[(int) (tick & mask)].expire(tick, handler);
+            tick++;
+        }
+
+        return result;
+    }
+
+    /**
+     * moves pending timeouts into buckets (owner thread only)
+     */
+    private void transferPending() {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state == Timeout.CANCELLED) {
+                continue;
+            }
+
+            long ticks = Math.max(timeout.deadline / tickNanos, tick);
+            timeout.rounds = (ticks - tick) / buckets.length;
+            buckets[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * unlinks cancelled timeouts (owner thread only)
+     */
+    private void removeCancelled() {
+        Timeout<T> timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * @return number of scheduled timeouts
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return tick duration (nano seconds)
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Cancels all timeouts.<br>
+     * Must be called by owner thread.<br>
+     *
+     * @param handler handles cancelled targets (nullable)
+     */
+    public void clear(Consumer<? super T> handler) {
+        Timeout<T> waiting;
+        while ((waiting = pending.poll()) != null) {
+            if (waiting.cancel() && handler != null) {
+                handler.accept(waiting.target);
+            }
+        }
+
+        for (Bucket<T> bucket : buckets) {
+            Timeout<T> timeout;
+            while ((timeout = bucket.head) != null) {
+                bucket.remove(timeout);
+                if (timeout.cancel() && handler != null) {
+                    handler.accept(timeout.target);
+                }
+            }
+        }
+
+        // already unlinked
+        cancelled.clear();
+    }
+
+    /**
+     * A scheduled target
+     *
+     * @param <T> target class
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    public static final class Timeout<T> {
+        static final int WAITING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel<T> wheel;
+        private final T target;
+        /**
+         * nano seconds from origin of wheel
+         */
+        private final long deadline;
+        private volatile int state = WAITING;
+
+        // owned by wheel's owner thread
+        long rounds;
+        Bucket<T> bucket;
+        Timeout<T> prev;
+        Timeout<T> next;
+
+        Timeout(TimingWheel<T> wheel, T target, long deadline) {
+            this.wheel = wheel;
+            this.target = target;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels this timeout (thread safe)
+         *
+         * @return false if already expired or cancelled
+         */
+        public boolean cancel() {
+            boolean result = false;
+
+            if (STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                wheel.size.decrementAndGet();
+                wheel.cancelled.add(this);
+                result = true;
+            }
+
+            return result;
+        }
+
+        /**
+         * @return true if expired or being expired
+         */
+        boolean expire() {
+            boolean result = false;
+
+            if (STATE.compareAndSet(this, WAITING, EXPIRED)) {
+                wheel.size.decrementAndGet();
+                result = true;
+            }
+
+            return result;
+        }
+
+        /**
+         * @return scheduled target
+         */
+        public T getTarget() {
+            return target;
+        }
+
+        /**
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        /**
+         * @return true if expired
+         */
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts (owner thread only)
+     *
+     * @param <T> target class
+     */
+    private static final class Bucket<T> {
+        Timeout<T> head;
+        Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+
+        /**
+         * @param tick    current tick
+         * @param handler handles expired targets
+         * @return number of expired targets
+         */
+        int expire(long tick, Consumer<? super T> handler) {
+            int result = 0;
+
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+
+                if (timeout.state == Timeout.CANCELLED) {
+                    remove(timeout);
+                } else if (timeout.rounds <= 0) {
+                    remove(timeout);
+                    if (timeout.expire()) {
+                        handler.accept(timeout.target);
+                        result++;
+                    }
+                } else {
+                    timeout.rounds--;
+                }
+
+                timeout = next;
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import blueprint.sdk.util.queue.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * A Group of Workers running on virtual threads.<br>
+ * Intended for I/O bound Workers, sized by concurrency limit instead of thread count.<br>
+ * <br>
+ * Virtual threads require Java 21+ (Multi-Release JAR).
+ * On older runtimes, platform daemon threads are used instead.<br>
+ *
+ * @param <J> Job Type
+ * @param <Q> Queue Type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class VirtualWorkerGroup<J, Q extends Queue<J>> extends WorkerGroup<J, Q> {
+    private static final Logger L = LoggerFactory.getLogger(VirtualWorkerGroup.class);
+
+    /**
+     * Execution mode
+     */
+    public enum Mode {
+        /**
+         * fixed set of Workers, each on its own virtual thread (Worker count = concurrency)
+         */
+        CONSUMERS,
+        /**
+         * a virtual thread per job, at most concurrency jobs in flight
+         */
+        PER_JOB
+    }
+
+    private final Mode mode;
+    /**
+     * maximum number of jobs in flight
+     */
+    private final int concurrency;
+    /**
+     * permits for in-flight jobs (PER_JOB mode)
+     */
+    private final Semaphore permits;
+    /**
+     * idle Worker instances (PER_JOB mode). At most concurrency instances are created.
+     */
+    private final ConcurrentLinkedQueue<Worker<J>> idleWorkers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Constructor
+     *
+     * @param jobQueue    job queue
+     * @param workerClass Worker class
+     * @param concurrency maximum number of jobs in flight
+     * @param mode        execution mode
+     */
+    public VirtualWorkerGroup(final Q jobQueue, final Class<? extends Worker<J>> workerClass, final int concurrency,
+                              final Mode mode) {
+        super(jobQueue, workerClass, mode == Mode.CONSUMERS ? concurrency : 0);
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be positive - " + concurrency);
+        }
+        if (mode == null) {
+            throw new NullPointerException("mode is null");
+        }
+
+        this.mode = mode;
+        this.concurrency = concurrency;
+        permits = new Semaphore(concurrency);
+
+        if (!Threads.isVirtualSupported()) {
+            L.warn("virtual threads are not supported by current runtime. platform threads will be used instead.");
+        }
+    }
+
+    @Override
+    protected void newWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+            InvocationTargetException {
+        Worker<J> aWorker = createWorker();
+        workers.add(aWorker);
+        aWorker.start(true);
+    }
+
+    @Override
+    public void run() {
+        if (mode == Mode.CONSUMERS) {
+            super.run();
+        } else {
+            running = true;
+
+            while (running) {
+                // wakes up periodically to check termination
+                List<J> jobs = jobQueue.take(1, INTERVAL);
+                for (J job : jobs) {
+                    dispatch(job);
+                }
+            }
+
+            terminated = true;
+        }
+    }
+
+    /**
+     * Runs a job on a new virtual thread.<br>
+     * Blocks while concurrency limit is reached.<br>
+     *
+     * @param job job to run
+     */
+    private void dispatch(final J job) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            L.warn("interrupted while waiting for a permit. job is returned to queue.");
+            jobQueue.push(job);
+            return;
+        }
+
+        Worker<J> worker = idleWorkers.poll();
+        if (worker == null) {
+            try {
+                worker = createWorker();
+            } catch (Exception e) {
+                L.error("Can't create worker - " + workerClass.getName(), e);
+                permits.release();
+                jobQueue.push(job);
+                return;
+            }
+        }
+
+        final Worker<J> aWorker = worker;
+        Threads.newThread(() -> {
+            aWorker.active = true;
+            long start = System.nanoTime();
+            try {
+                aWorker.process(job);
+            } catch (Exception e) {
+                L.error("Can't process a job", e);
+            } finally {
+                aWorker.active = false;
+                if (jobQueue instanceof JobQueue) {
+                    JobQueue<?> queue = (JobQueue<?>) jobQueue;
+                    queue.increaseProcessedJobCounter();
+                    queue.recordServiceTime(System.nanoTime() - start, 1);
+                }
+
+                idleWorkers.offer(aWorker);
+                permits.release();
+            }
+        }, aWorker.getClass().getName(), true).start();
+    }
+
+    @Override
+    public void terminate() {
+        super.terminate();
+
+        Worker<J> worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.terminate();
+        }
+    }
+
+    @Override
+    public String getActivity() {
+        String result;
+
+        if (mode == Mode.CONSUMERS) {
+            result = super.getActivity();
+        } else {
+            result = "queued=" + jobQueue.size() + ", concurrency=" + concurrency + ", processing="
+                    + (concurrency - permits.availablePermits());
+        }
+
+        return result;
+    }
+
+    /**
+     * @return execution mode
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return maximum number of jobs in flight
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+}
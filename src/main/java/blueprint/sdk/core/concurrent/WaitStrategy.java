@@ -0,0 +1,114 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides what a Thread does while it can't make progress on a lock-free structure.<br>
+ * (consumer on empty queue, producer on full queue)<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public interface WaitStrategy {
+    /**
+     * Busy spinning. Lowest latency, burns a core per waiting thread.
+     */
+    WaitStrategy SPIN = new Spin();
+    /**
+     * Spins for a while then yields to other threads.
+     */
+    WaitStrategy YIELD = new Yield(100);
+    /**
+     * Spins, yields and then parks for a short time. Cheapest on CPU.
+     */
+    WaitStrategy PARK = new Park(100, 100, 1000L * 1000L);
+
+    /**
+     * Called whenever a thread failed to make progress
+     *
+     * @param attempts number of consecutive failures (starts from 0)
+     */
+    void idle(int attempts);
+
+    /**
+     * Busy spinning strategy
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    class Spin implements WaitStrategy {
+        @Override
+        public void idle(int attempts) {
+            // NO-Op
+        }
+    }
+
+    /**
+     * Spin, then yield
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    class Yield implements WaitStrategy {
+        private final int spins;
+
+        /**
+         * @param spins number of spins before yielding
+         */
+        public Yield(int spins) {
+            this.spins = spins;
+        }
+
+        @Override
+        public void idle(int attempts) {
+            if (attempts >= spins) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Spin, yield, then park
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    class Park implements WaitStrategy {
+        private final int spins;
+        private final int yields;
+        private final long parkNanos;
+
+        /**
+         * @param spins     number of spins before yielding
+         * @param yields    number of yields before parking
+         * @param parkNanos maximum park time (nano seconds)
+         */
+        public Park(int spins, int yields, long parkNanos) {
+            this.spins = spins;
+            this.yields = yields;
+            this.parkNanos = parkNanos;
+        }
+
+        @Override
+        public void idle(int attempts) {
+            if (attempts >= spins + yields) {
+                LockSupport.parkNanos(parkNanos);
+            } else if (attempts >= spins) {
+                Thread.yield();
+            }
+        }
+    }
+}
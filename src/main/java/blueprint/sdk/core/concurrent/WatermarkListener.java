@@ -0,0 +1,36 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.core.concurrent;
+
+/**
+ * Gets notified when depth of a {@link JobQueue} crosses watermarks, so that producers can throttle.<br>
+ * Called while holding the lock of queue. Must return quickly.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public interface WatermarkListener {
+    /**
+     * Queue reached high watermark. Producers should slow down.
+     *
+     * @param size current size of queue
+     */
+    void onHighWatermark(int size);
+
+    /**
+     * Queue drained down to low watermark. Producers can resume.
+     *
+     * @param size current size of queue
+     */
+    void onLowWatermark(int size);
+}
@@ -0,0 +1,445 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+import blueprint.sdk.util.queue.Queue;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Work-stealing queue for {@link StealingWorkerGroup}.<br>
+ * <br>
+ * Each Worker owns a {@link Local} deque. The owner pushes and takes at the head,
+ * idle Workers steal from the tails of their peers.<br>
+ * External submissions through {@link WorkStealingQueue#push(Object)} are spread round-robin over local deques.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> job class
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class WorkStealingQueue<T> implements Queue<T> {
+    /**
+     * maximum park time of an idle Worker (nano seconds)
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * jobs submitted while no local deque exists
+     */
+    private final ConcurrentLinkedDeque<T> inbox = new ConcurrentLinkedDeque<>();
+    /**
+     * registered local deques (copy on write)
+     */
+    private volatile Local[] locals = newLocals(0);
+    /**
+     * round-robin counter for external submissions
+     */
+    private final AtomicInteger next = new AtomicInteger();
+    /**
+     * number of parked Workers
+     */
+    private final AtomicInteger idle = new AtomicInteger();
+    private volatile boolean disposed = false;
+
+    /**
+     * @param length length of array
+     * @return new array of local deques
+     */
+    @SuppressWarnings("unchecked")
+    private Local[] newLocals(int length) {
+        return (Local[]) Array.newInstance(Local.class, length);
+    }
+
+    /**
+     * Creates and registers a local deque for a new Worker
+     *
+     * @return new local deque
+     */
+    public synchronized Local newLocal() {
+        Local result = new Local();
+
+        Local[] grown = Arrays.copyOf(locals, locals.length + 1);
+        grown[grown.length - 1] = result;
+        locals = grown;
+
+        // hand over jobs which are submitted before any Worker exists
+        T aJob;
+        while ((aJob = inbox.pollFirst()) != null) {
+            result.deque.offerLast(aJob);
+        }
+
+        return result;
+    }
+
+    /**
+     * Unregisters a local deque and redistributes it's jobs.<br>
+     * Jobs pushed to a retired deque later (by stale submitters or by it's owner) are redistributed too.<br>
+     *
+     * @param local local deque to remove
+     */
+    public void retire(Local local) {
+        synchronized (this) {
+            List<Local> remains = new ArrayList<>(Arrays.asList(locals));
+            if (!remains.remove(local)) {
+                return;
+            }
+            locals = remains.toArray(newLocals(remains.size()));
+        }
+
+        // marked after unregistered, so that redistributed jobs never come back
+        local.retired = true;
+        local.rehome();
+    }
+
+    /**
+     * push a job from outside of Workers (round-robin)
+     *
+     * @param element job to push
+     */
+    @Override
+    public void push(T element) {
+        if (element == null) {
+            throw new NullPointerException("Can't push null");
+        }
+        if (disposed) {
+            throw new IllegalStateException("Can't push into disposed queue");
+        }
+
+        submit(element);
+    }
+
+    private void submit(T aJob) {
+        Local[] targets = locals;
+
+        if (targets.length == 0) {
+            inbox.offerLast(aJob);
+            signal(null);
+        } else {
+            Local target = targets[(next.getAndIncrement() & Integer.MAX_VALUE) % targets.length];
+            if (target.offer(aJob, false)) {
+                signal(target);
+            }
+        }
+    }
+
+    /**
+     * Wakes up preferred Worker if it's parked, otherwise any parked Worker
+     *
+     * @param preferred preferred local deque (nullable)
+     */
+    private void signal(Local preferred) {
+        if (preferred != null && preferred.unpark()) {
+            return;
+        }
+
+        if (idle.get() > 0) {
+            for (Local local : locals) {
+                if (local.unpark()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Steals a job from inbox or from the tail of a peer
+     *
+     * @param thief local deque of thief (excluded)
+     * @return stolen job or null
+     */
+    private T steal(Local thief) {
+        T result = inbox.pollFirst();
+
+        if (result == null) {
+            Local[] victims = locals;
+            if (victims.length > 0) {
+                int start = ThreadLocalRandom.current().nextInt(victims.length);
+                for (int i = 0; i < victims.length && result == null; i++) {
+                    Local victim = victims[(start + i) % victims.length];
+                    if (victim != thief) {
+                        result = victim.deque.pollLast();
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a job from any deque (for consumers other than Workers).
+     *
+     * @return a job or null(disposed or interrupted)
+     */
+    @Override
+    public T take() {
+        T result;
+        while ((result = steal(null)) == null) {
+            if (disposed || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        return result;
+    }
+
+    @Override
+    public List<T> take(int max, long timeout) {
+        return take(null, max, timeout);
+    }
+
+    private List<T> take(Local local, int max, long timeout) {
+        List<T> result = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        while (max > 0 && drain(local, result, max) == 0) {
+            long remaining = deadline - System.nanoTime();
+            if (disposed || remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            if (local == null) {
+                LockSupport.parkNanos(this, Math.min(remaining, PARK_NANOS));
+            } else {
+                local.park(Math.min(remaining, PARK_NANOS));
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> target, int max) {
+        return drain(null, target, max);
+    }
+
+    private int drain(Local local, Collection<? super T> target, int max) {
+        int result = 0;
+
+        T aJob;
+        while (result < max && (aJob = (local == null ? null : local.deque.pollFirst())) != null) {
+            target.add(aJob);
+            result++;
+        }
+        while (result < max && (aJob = steal(local)) != null) {
+            target.add(aJob);
+            result++;
+        }
+
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        inbox.clear();
+        for (Local local : locals) {
+            local.deque.clear();
+        }
+    }
+
+    /**
+     * <b>O(n)</b>, for monitoring only.
+     *
+     * @return number of jobs in all deques
+     */
+    @Override
+    public int size() {
+        int result = inbox.size();
+        for (Local local : locals) {
+            result += local.deque.size();
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * Release all blocked Threads on take() and dispose queue.
+     */
+    public void dispose() {
+        disposed = true;
+
+        for (Local local : locals) {
+            local.unpark();
+        }
+    }
+
+    /**
+     * Local deque of a Worker.<br>
+     * push() is for self-submitted jobs, take() falls back to stealing.<br>
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    public class Local implements Queue<T> {
+        final ConcurrentLinkedDeque<T> deque = new ConcurrentLinkedDeque<>();
+        /**
+         * thread which is parked on this deque
+         */
+        private volatile Thread waiter;
+        /**
+         * true if unregistered by {@link WorkStealingQueue#retire(Local)}
+         */
+        volatile boolean retired = false;
+
+        Local() {
+        }
+
+        /**
+         * Adds a job, or redistributes it if this deque is retired.<br>
+         * retire() marks before draining and this checks after adding,
+         * so that either of them finds the job.<br>
+         *
+         * @param aJob job to add
+         * @param head true: add to head (self-submitted), false: add to tail
+         * @return false if redistributed
+         */
+        boolean offer(T aJob, boolean head) {
+            if (head) {
+                deque.offerFirst(aJob);
+            } else {
+                deque.offerLast(aJob);
+            }
+
+            boolean result = true;
+            if (retired) {
+                rehome();
+                result = false;
+            }
+
+            return result;
+        }
+
+        /**
+         * moves all jobs to registered deques (or inbox)
+         */
+        void rehome() {
+            T aJob;
+            while ((aJob = deque.pollLast()) != null) {
+                submit(aJob);
+            }
+        }
+
+        /**
+         * parks current thread until signaled or timeout
+         *
+         * @param nanos maximum park time
+         */
+        void park(long nanos) {
+            waiter = Thread.currentThread();
+            idle.incrementAndGet();
+            try {
+                // re-check after publishing waiter, so that a signal can't be missed
+                if (deque.isEmpty() && inbox.isEmpty() && !disposed) {
+                    LockSupport.parkNanos(this, nanos);
+                }
+            } finally {
+                idle.decrementAndGet();
+                waiter = null;
+            }
+        }
+
+        /**
+         * @return true if a parked thread is woken up
+         */
+        boolean unpark() {
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Retrieves a job from own deque, or steals one.
+         *
+         * @return a job or null(disposed or interrupted)
+         */
+        @Override
+        public T take() {
+            T result;
+            while ((result = deque.pollFirst()) == null && (result = steal(this)) == null) {
+                if (disposed || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                park(PARK_NANOS);
+            }
+            return result;
+        }
+
+        @Override
+        public List<T> take(int max, long timeout) {
+            return WorkStealingQueue.this.take(this, max, timeout);
+        }
+
+        @Override
+        public int drainTo(Collection<? super T> target, int max) {
+            return drain(this, target, max);
+        }
+
+        /**
+         * push a self-submitted job to the head of own deque
+         *
+         * @param element job to push
+         */
+        @Override
+        public void push(T element) {
+            if (element == null) {
+                throw new NullPointerException("Can't push null");
+            }
+            if (disposed) {
+                throw new IllegalStateException("Can't push into disposed queue");
+            }
+
+            // let a parked peer steal it (already signaled if redistributed)
+            if (offer(element, true) && idle.get() > 0) {
+                signal(null);
+            }
+        }
+
+        @Override
+        public void clear() {
+            deque.clear();
+        }
+
+        /**
+         * <b>O(n)</b>, for monitoring only.
+         *
+         * @return number of jobs in own deque
+         */
+        @Override
+        public int size() {
+            return deque.size();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
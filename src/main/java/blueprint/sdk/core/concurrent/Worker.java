@@ -31,8 +31,8 @@ public abstract class Worker<J> extends TerminatableThread {
      * notify this when terminated
      */
     private final Object deathMonitor;
-    private Queue<J> jobQueue = null;
-    private boolean active = false;
+    Queue<J> jobQueue = null;
+    boolean active = false;
 
     /**
      * Constructor
@@ -46,10 +46,16 @@ public abstract class Worker<J> extends TerminatableThread {
     }
 
     public void start() {
-        Thread thr = new Thread(this);
-        thr.setName(this.getClass().getName());
-        thr.setDaemon(true);
-        thr.start();
+        start(false);
+    }
+
+    /**
+     * Starts this worker
+     *
+     * @param virtual true: run on a virtual thread (if supported by runtime)
+     */
+    public void start(boolean virtual) {
+        Threads.newThread(this, this.getClass().getName(), virtual).start();
     }
 
     @Override
@@ -57,17 +63,36 @@ public abstract class Worker<J> extends TerminatableThread {
         running = true;
 
         while (running) {
+            long start = 0L;
             try {
                 // blocks until queue have something to pop
                 J job = jobQueue.take();
+                if (job == null) {
+                    if (jobQueue.isDisposed()) {
+                        // take() returns right away from now on
+                        terminate();
+                    } else {
+                        // interrupted. running flag decides termination, not the interrupt.
+                        Thread.interrupted();
+                    }
+                    continue;
+                }
+
                 active = true;
+                start = System.nanoTime();
                 process(job);
             } catch (Exception e) {
                 L.error("Can't process a job", e);
                 terminate();
             } finally {
-                if (jobQueue instanceof JobQueue) {
-                    ((JobQueue<?>) jobQueue).increaseProcessedJobCounter();
+                if (start != 0L && jobQueue instanceof JobQueue) {
+                    JobQueue<?> queue = (JobQueue<?>) jobQueue;
+                    queue.increaseProcessedJobCounter();
+                    queue.recordServiceTime(System.nanoTime() - start, 1);
+                }
+                if (jobQueue instanceof KeyedJobQueue) {
+                    // let next job of same key go
+                    ((KeyedJobQueue<?>) jobQueue).done();
                 }
                 active = false;
             }
@@ -15,6 +15,8 @@ package blueprint.sdk.core.concurrent;
 
 import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
 import blueprint.sdk.util.jvm.shutdown.Terminator;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
 import blueprint.sdk.util.queue.Queue;
 import blueprint.sdk.util.reflect.Crowbar;
 import org.slf4j.Logger;
@@ -26,27 +28,27 @@ import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * A Group of Workers<br>
  * Maintains JobQueue and Workers<br>
  * <br>
  * If you want to use automatic thread spanning feature, call start() method.<br>
+ * <br>
+ * With a bounded {@link JobQueue}, {@link WorkerGroup#addJob(Object)} follows {@link OverflowPolicy}
+ * when the queue is full. {@link WorkerGroup#offer(Object)} never waits.<br>
  *
  * @param <J> Job Type
  * @param <Q> Queue Type
  * @author lempel@gmail.com
  * @since 2008. 11. 25.
  */
-public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
+public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread implements Instrumented {
     /**
      * check interval (msec)
      */
     protected static final int INTERVAL = 1000;
-    /**
-     * worker thread increase ratio
-     */
-    static final float THREAD_INC_RATIO = 0.2f;
     private static final Logger L = LoggerFactory.getLogger(WorkerGroup.class);
     protected final Class<? extends Worker<J>> workerClass;
     protected final Q jobQueue;
@@ -56,6 +58,18 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
      */
     protected final Object deathMonitor = new Object();
     final int initialWorkers;
+    /**
+     * idle Worker instances for {@link OverflowPolicy#CALLER_RUNS}
+     */
+    private final ConcurrentLinkedQueue<Worker<J>> callerRunners = new ConcurrentLinkedQueue<>();
+    /**
+     * what to do when jobQueue is full
+     */
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    /**
+     * maximum wait time for {@link OverflowPolicy#BLOCK} (msec, negative = forever)
+     */
+    private volatile long overflowTimeout = -1L;
 
     /**
      * Constructor
@@ -89,8 +103,37 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
      */
     protected void newWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
             InvocationTargetException {
-        Worker<J> aWorker;
+        Worker<J> aWorker = createWorker();
+        workers.add(aWorker);
+        aWorker.start();
+    }
 
+    /**
+     * create a new Worker (not started)
+     *
+     * @return new Worker
+     * @throws NoSuchMethodException     no suitable constructor (Queue, Object)
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected Worker<J> createWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+            InvocationTargetException {
+        return createWorker(jobQueue);
+    }
+
+    /**
+     * create a new Worker (not started) with given queue
+     *
+     * @param queue queue for new Worker
+     * @return new Worker
+     * @throws NoSuchMethodException     no suitable constructor (Queue, Object)
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    protected Worker<J> createWorker(Queue<J> queue) throws NoSuchMethodException, InstantiationException,
+            IllegalAccessException, InvocationTargetException {
         Constructor[] constructors = workerClass.getConstructors();
         for (Constructor constructor : constructors) {
             Parameter[] params = constructor.getParameters();
@@ -102,12 +145,11 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
             if (Crowbar.isInstance(params[0].getType(), Queue.class)
                     && Crowbar.isInstance(params[1].getType(), Object.class)) {
                 // FIXME how can I resolve this warning?
-                aWorker = (Worker<J>) constructor.newInstance(jobQueue, deathMonitor);
-                workers.add(aWorker);
-                aWorker.start();
-                break;
+                return (Worker<J>) constructor.newInstance(queue, deathMonitor);
             }
         }
+
+        throw new NoSuchMethodException(workerClass.getName() + " has no constructor of (Queue, Object)");
     }
 
 
@@ -117,6 +159,11 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
      * @param count number of workers
      */
     void addWorkers(final int count) {
+        if (jobQueue.isDisposed()) {
+            // would terminate right away
+            return;
+        }
+
         int failure = 0;
 
         synchronized (workers) {
@@ -175,10 +222,138 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
                 }
             }
         }
+
+        // never started, but registered to Terminator at creation
+        Worker<J> runner;
+        while ((runner = callerRunners.poll()) != null) {
+            runner.terminate();
+            Terminator.getInstance().unregister(runner);
+        }
     }
 
+    /**
+     * Adds a job. Follows {@link OverflowPolicy} if bounded {@link JobQueue} is full.
+     *
+     * @param job job to add
+     * @throws RejectedJobException queue is full ({@link OverflowPolicy#BLOCK}, {@link OverflowPolicy#REJECT})
+     */
+    @SuppressWarnings("unchecked")
     public void addJob(final J job) {
-        jobQueue.push(job);
+        if (jobQueue instanceof JobQueue) {
+            JobQueue<J> queue = (JobQueue<J>) jobQueue;
+
+            switch (overflowPolicy) {
+                case REJECT:
+                    if (!queue.offer(job)) {
+                        throw new RejectedJobException("queue is full - capacity: " + queue.getCapacity());
+                    }
+                    break;
+                case DROP_OLDEST:
+                    for (J dropped : queue.pushDroppingOldest(job)) {
+                        dropped(dropped);
+                    }
+                    break;
+                case CALLER_RUNS:
+                    if (!queue.offer(job)) {
+                        runOnCaller(job);
+                    }
+                    break;
+                default:
+                    if (overflowTimeout < 0) {
+                        queue.push(job);
+                    } else if (!queue.offer(job, overflowTimeout)) {
+                        throw new RejectedJobException("queue is full for " + overflowTimeout + " msec - capacity: "
+                                + queue.getCapacity());
+                    }
+                    break;
+            }
+        } else {
+            jobQueue.push(job);
+        }
+    }
+
+    /**
+     * Adds a job without waiting
+     *
+     * @param job job to add
+     * @return false if queue is full
+     */
+    @SuppressWarnings("unchecked")
+    public boolean offer(final J job) {
+        boolean result = true;
+
+        if (jobQueue instanceof JobQueue) {
+            result = ((JobQueue<J>) jobQueue).offer(job);
+        } else {
+            jobQueue.push(job);
+        }
+
+        return result;
+    }
+
+    /**
+     * Called when a job is dropped by {@link OverflowPolicy#DROP_OLDEST}
+     *
+     * @param job dropped job
+     */
+    protected void dropped(J job) {
+        L.warn("queue is full. job dropped - {}", job);
+    }
+
+    /**
+     * Processes a job on current thread ({@link OverflowPolicy#CALLER_RUNS})
+     *
+     * @param job job to process
+     */
+    private void runOnCaller(final J job) {
+        Worker<J> worker = callerRunners.poll();
+        if (worker == null) {
+            try {
+                worker = createWorker();
+            } catch (Exception e) {
+                throw new RejectedJobException("queue is full and can't create worker - " + workerClass.getName(), e);
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            worker.process(job);
+        } finally {
+            if (jobQueue instanceof JobQueue) {
+                JobQueue<?> queue = (JobQueue<?>) jobQueue;
+                queue.increaseProcessedJobCounter();
+                queue.recordServiceTime(System.nanoTime() - start, 1);
+            }
+
+            callerRunners.offer(worker);
+        }
+    }
+
+    /**
+     * @param policy  what to do when bounded {@link JobQueue} is full
+     * @param timeout maximum wait time for {@link OverflowPolicy#BLOCK} (msec, negative = forever)
+     */
+    public void setOverflowPolicy(OverflowPolicy policy, long timeout) {
+        if (policy == null) {
+            throw new NullPointerException("policy is null");
+        }
+
+        overflowPolicy = policy;
+        overflowTimeout = timeout;
+    }
+
+    /**
+     * @return what to do when bounded {@link JobQueue} is full
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return maximum wait time for {@link OverflowPolicy#BLOCK} (msec, negative = forever)
+     */
+    public long getOverflowTimeout() {
+        return overflowTimeout;
     }
 
     @Override
@@ -224,7 +399,8 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
                 }
             }
 
-            int delta = workerCount - workers.size();
+            // workers of disposed queue are not replaced
+            int delta = jobQueue.isDisposed() ? 0 : workerCount - workers.size();
             for (int i = 0; i < delta; i++) {
                 try {
                     newWorker();
@@ -235,6 +411,23 @@ public class WorkerGroup<J, Q extends Queue<J>> extends TerminatableThread {
         }
     }
 
+    /**
+     * Registers number of workers and active workers.<br>
+     * Metrics of jobQueue are registered as [prefix].queue if it's {@link Instrumented}.<br>
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names
+     */
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        registry.gauge(prefix + ".workers", workers::size);
+        registry.gauge(prefix + ".active", this::getActiveWorkerCount);
+
+        if (jobQueue instanceof Instrumented) {
+            ((Instrumented) jobQueue).registerMetrics(registry, prefix + ".queue");
+        }
+    }
+
     public String getActivity() {
         return "queued=" + jobQueue.size() + ", workers=" + workers.size() + ", processing=" + getActiveWorkerCount();
     }
@@ -13,6 +13,7 @@
 
 package blueprint.sdk.core.concurrent.lock;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 
 /**
@@ -38,6 +39,18 @@ public class Mutex {
         sync.acquire(1);
     }
 
+    /**
+     * Acquires lock if it's released within given time
+     *
+     * @param timeout maximum time to wait
+     * @param unit    time unit of timeout
+     * @return true if acquired
+     * @throws InterruptedException interrupted while waiting
+     */
+    public boolean tryLock(long timeout, TimeUnit unit) throws InterruptedException {
+        return sync.tryAcquireNanos(1, unit.toNanos(timeout));
+    }
+
     /**
      * Releases lock
      */
@@ -59,6 +59,13 @@ public class TimestampedReadWriteLock extends TimestampedLockBase<ReentrantReadW
         return getLock().isWriteLocked();
     }
 
+    /**
+     * @return true if write locked or read locked by any thread
+     */
+    public boolean isLocked() {
+        return getLock().isWriteLocked() || getLock().getReadLockCount() > 0;
+    }
+
     /**
      * Wrapper for {@link ReentrantReadWriteLock.ReadLock} with timestamp
      * support.
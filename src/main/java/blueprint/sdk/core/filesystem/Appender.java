@@ -0,0 +1,188 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.core.filesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kept-open append channel of a file with group flush.<br>
+ * <br>
+ * Concurrent appends are queued, and whoever gets the write lock writes all queued ones
+ * with a single gathering write. Others just wait for their turn to be written.<br>
+ * Contents are written to the channel (not necessarily to the disk) when
+ * {@link Appender#append(byte[])} returns.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class Appender implements Closeable {
+    private final FileChannel channel;
+
+    /**
+     * contents to write (guarded by itself)
+     */
+    private final Queue<ByteBuffer> pending = new ArrayDeque<>();
+    /**
+     * number of queued contents (guarded by pending)
+     */
+    private long enqueued = 0L;
+    /**
+     * set under pending's monitor, so that nothing is queued after close
+     */
+    private volatile boolean closed = false;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * number of written contents (guarded by writeLock)
+     */
+    private long written = 0L;
+    /**
+     * failure of a write (guarded by writeLock)
+     */
+    private IOException failure = null;
+    /**
+     * tickets after this are not written because of failure (guarded by writeLock)
+     */
+    private long failedAfter = Long.MAX_VALUE;
+
+    /**
+     * last append (msec)
+     */
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    /**
+     * @param path file path (created if not exists)
+     * @throws IOException Can't open given path
+     */
+    Appender(String path) throws IOException {
+        channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Appends contents, together with concurrent appends
+     *
+     * @param contents contents to append
+     * @return false if closed (nothing is written)
+     * @throws IOException Can't write
+     */
+    boolean append(byte[] contents) throws IOException {
+        lastUsed = System.currentTimeMillis();
+
+        long ticket;
+        synchronized (pending) {
+            if (closed) {
+                return false;
+            }
+
+            pending.add(ByteBuffer.wrap(contents));
+            ticket = ++enqueued;
+        }
+
+        writeLock.lock();
+        try {
+            // someone else may have written mine already
+            while (written < ticket && failure == null) {
+                writePending();
+            }
+
+            if (ticket > failedAfter) {
+                throw new IOException("append failed", failure);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        return true;
+    }
+
+    /**
+     * writes all queued contents (guarded by writeLock)
+     */
+    private void writePending() throws IOException {
+        ByteBuffer[] batch;
+        synchronized (pending) {
+            batch = pending.toArray(new ByteBuffer[0]);
+            pending.clear();
+        }
+
+        try {
+            long remaining = 0L;
+            for (ByteBuffer buffer : batch) {
+                remaining += buffer.remaining();
+            }
+
+            while (remaining > 0) {
+                remaining -= channel.write(batch);
+            }
+        } catch (IOException e) {
+            failure = e;
+            failedAfter = written;
+            synchronized (pending) {
+                // broken. let callers open a new one.
+                closed = true;
+            }
+            throw e;
+        } finally {
+            written += batch.length;
+        }
+    }
+
+    /**
+     * Forces written contents to the disk
+     *
+     * @throws IOException Can't sync
+     */
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * @return last append (msec)
+     */
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * writes queued contents and closes channel
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (pending) {
+            closed = true;
+        }
+
+        writeLock.lock();
+        try {
+            if (failure == null) {
+                writePending();
+            }
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
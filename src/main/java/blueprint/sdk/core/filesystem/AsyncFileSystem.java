@@ -0,0 +1,502 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.filesystem;
+
+import blueprint.sdk.core.concurrent.Threads;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking File System.<br>
+ * Every operation returns a {@link CompletableFuture} immediately,
+ * and reads/writes are done by {@link AsynchronousFileChannel} on a bounded I/O executor.<br>
+ * <br>
+ * Operations on a path are done in order of calls, one at a time (same as {@link ConcurrentFileSystem}),
+ * without parking calling threads. A rename waits for operations on both paths.<br>
+ * If the executor is saturated, operations fail with {@link RejectedExecutionException} instead of blocking.<br>
+ * Dependent stages of returned futures may run on I/O threads. Use *Async variants for long running stages.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class AsyncFileSystem {
+    private static final Set<OpenOption> READ = new HashSet<>(Arrays.asList(StandardOpenOption.READ));
+    private static final Set<OpenOption> OVERWRITE = new HashSet<>(Arrays.asList(StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+    private static final Set<OpenOption> APPEND = new HashSet<>(Arrays.asList(StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE));
+
+    /**
+     * executor of I/O and completion handlers
+     */
+    private final ExecutorService executor;
+    /**
+     * true if executor is created (and shut down) by this
+     */
+    private final boolean ownExecutor;
+    /**
+     * last operation of each path
+     */
+    private final Map<String, CompletableFuture<?>> tails = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param threads   number of I/O threads
+     * @param queueSize maximum number of waiting I/O tasks
+     */
+    public AsyncFileSystem(int threads, int queueSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive - " + threads);
+        }
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("queueSize must be positive - " + queueSize);
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueSize),
+                task -> Threads.newThread(task, "AsyncFileSystem-" + hashCode() + "-" + count.incrementAndGet(), false));
+        ownExecutor = true;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param executor executor of I/O and completion handlers (not shut down by this)
+     */
+    public AsyncFileSystem(ExecutorService executor) {
+        if (executor == null) {
+            throw new NullPointerException("executor is null");
+        }
+
+        this.executor = executor;
+        ownExecutor = false;
+    }
+
+    /**
+     * Reads whole file
+     *
+     * @param path file path
+     * @return contents of file
+     */
+    public CompletableFuture<byte[]> readFile(String path) {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        return enqueue(path, null, result -> {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(Paths.get(path), READ, executor);
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(GenericFileSystem.checkSize(path, channel.size()));
+                new Transfer<>(channel, buffer, 0L, false, result, () -> {
+                    // truncated meanwhile, if not filled
+                    return buffer.hasRemaining() ? Arrays.copyOf(buffer.array(), buffer.position()) : buffer.array();
+                }).start();
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Writes to a file.<br>
+     * <br>
+     * An overwrite of an existing file replaces it with a new one, so that a failure can't leave it truncated.
+     * POSIX permissions are kept, but owner, ACLs and hard links of the old file are not.<br>
+     *
+     * @param path     file path
+     * @param contents contents to write
+     * @param append   true: append, false: overwrite
+     * @return completed when written
+     */
+    public CompletableFuture<Void> writeToFile(String path, byte[] contents, boolean append) {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (contents == null) {
+            throw new NullPointerException("contents is null");
+        }
+
+        return enqueue(path, null, result -> {
+            Path target = Paths.get(path);
+            if (append || Files.notExists(target)) {
+                // nothing to lose for a new file, which is created with default permissions
+                AsynchronousFileChannel channel = AsynchronousFileChannel.open(target,
+                        append ? APPEND : OVERWRITE, executor);
+                try {
+                    // no APPEND option for AsynchronousFileChannel, writes of a path are serialized anyway
+                    long position = append ? channel.size() : 0L;
+                    new Transfer<Void>(channel, ByteBuffer.wrap(contents), position, true, result, () -> null).start();
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+            } else {
+                overwrite(target.toAbsolutePath(), contents, result);
+            }
+        });
+    }
+
+    /**
+     * Writes to a temporary file of same directory, then replaces target with it.<br>
+     * Target is left as is, if writing fails half way (e.g. saturated executor).<br>
+     *
+     * @param target   file to overwrite
+     * @param contents contents to write
+     * @param result   completed when replaced
+     * @throws IOException Can't create temporary file
+     */
+    private void overwrite(Path target, byte[] contents, CompletableFuture<Void> result) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            copyPermissions(target, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        written.whenComplete((value, e) -> {
+            try {
+                if (e == null) {
+                    replace(temp, target);
+                    result.complete(null);
+                } else {
+                    result.completeExceptionally(e);
+                }
+            } catch (IOException | RuntimeException ex) {
+                result.completeExceptionally(ex);
+            } finally {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                }
+            }
+        });
+
+        try {
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(temp, OVERWRITE, executor);
+            try {
+                new Transfer<Void>(channel, ByteBuffer.wrap(contents), 0L, true, written, () -> null).start();
+            } catch (RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            written.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Copies POSIX permissions of a file, if it exists
+     *
+     * @param source file to copy from
+     * @param target file to copy to
+     * @throws IOException Can't copy
+     */
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (view != null) {
+            try {
+                Files.setPosixFilePermissions(target, view.readAttributes().permissions());
+            } catch (NoSuchFileException ignored) {
+                // deleted meanwhile, default permissions of temporary file
+            }
+        }
+    }
+
+    /**
+     * Moves a file over another, atomically if possible
+     *
+     * @param source file to move
+     * @param target file to replace
+     * @throws IOException Can't move
+     */
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Renames a file
+     *
+     * @param orgPath original path
+     * @param newPath new path
+     * @return true if renamed
+     */
+    public CompletableFuture<Boolean> renameFile(String orgPath, String newPath) {
+        if (orgPath == null || newPath == null) {
+            throw new NullPointerException("at least one of specified path is null");
+        }
+
+        return enqueue(orgPath, newPath, result -> {
+            boolean renamed = false;
+            if (!orgPath.equals(newPath)) {
+                renamed = new File(orgPath).renameTo(new File(newPath));
+            }
+            result.complete(renamed);
+        });
+    }
+
+    /**
+     * Deletes a file
+     *
+     * @param path file path
+     * @return true if deleted
+     */
+    public CompletableFuture<Boolean> deleteFile(String path) {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        return enqueue(path, null, result -> {
+            File target = new File(path);
+            result.complete(target.exists() && target.delete());
+        });
+    }
+
+    /**
+     * @return number of paths with operations in progress
+     */
+    public int getBusyPaths() {
+        return tails.size();
+    }
+
+    /**
+     * Shuts down own executor (operations in progress are completed)
+     */
+    public void dispose() {
+        if (ownExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Starts an operation after previous operations on same path(s)
+     *
+     * @param path      path of operation
+     * @param otherPath another path of operation (null for single path)
+     * @param operation starts I/O and completes given future eventually
+     * @param <T>       result type
+     * @return result of operation
+     */
+    private <T> CompletableFuture<T> enqueue(String path, String otherPath, Operation<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        CompletableFuture<?> previous;
+        if (otherPath == null || otherPath.equals(path)) {
+            previous = tails.put(path, result);
+        } else {
+            // registered together, so that two renames can't wait for each other
+            CompletableFuture<?> first;
+            CompletableFuture<?> second;
+            synchronized (tails) {
+                first = tails.put(path, result);
+                second = tails.put(otherPath, result);
+            }
+
+            if (first == null) {
+                previous = second;
+            } else if (second == null || second == first) {
+                previous = first;
+            } else {
+                previous = CompletableFuture.allOf(first, second);
+            }
+        }
+
+        // released before result is visible, next operation starts once result is completed (either way)
+        CompletableFuture<T> done = new CompletableFuture<>();
+        done.whenComplete((value, e) -> {
+            tails.remove(path, result);
+            if (otherPath != null) {
+                tails.remove(otherPath, result);
+            }
+
+            if (e == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(e);
+            }
+        });
+
+        if (previous == null) {
+            start(operation, done);
+        } else {
+            previous.whenComplete((value, e) -> start(operation, done));
+        }
+
+        return result;
+    }
+
+    /**
+     * starts an operation on the executor
+     *
+     * @param operation operation to run
+     * @param result    result of operation
+     * @param <T>       result type
+     */
+    private <T> void start(Operation<T> operation, CompletableFuture<T> result) {
+        try {
+            executor.execute(() -> {
+                try {
+                    operation.start(result);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * An I/O operation
+     *
+     * @param <T> result type
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private interface Operation<T> {
+        /**
+         * Starts I/O. Given future must be completed eventually.
+         *
+         * @param result result of operation
+         * @throws Exception Can't start
+         */
+        void start(CompletableFuture<T> result) throws Exception;
+    }
+
+    /**
+     * Reads or writes whole buffer, then closes channel and completes the future
+     *
+     * @param <T> result type
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Transfer<T> implements CompletionHandler<Integer, Void> {
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer buffer;
+        private final boolean write;
+        private final CompletableFuture<T> result;
+        /**
+         * creates result of transfer
+         */
+        private final Supplier<T> finisher;
+        /**
+         * file position of next transfer
+         */
+        private long position;
+
+        Transfer(AsynchronousFileChannel channel, ByteBuffer buffer, long position, boolean write,
+                 CompletableFuture<T> result, Supplier<T> finisher) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+            this.write = write;
+            this.result = result;
+            this.finisher = finisher;
+        }
+
+        void start() {
+            if (buffer.hasRemaining()) {
+                next();
+            } else {
+                finish(null);
+            }
+        }
+
+        private void next() {
+            if (write) {
+                channel.write(buffer, position, null, this);
+            } else {
+                channel.read(buffer, position, null, this);
+            }
+        }
+
+        @Override
+        public void completed(Integer count, Void attachment) {
+            if (count < 0) {
+                // end of file
+                finish(null);
+            } else {
+                position += count;
+                if (buffer.hasRemaining()) {
+                    try {
+                        next();
+                    } catch (RuntimeException e) {
+                        finish(e);
+                    }
+                } else {
+                    finish(null);
+                }
+            }
+        }
+
+        @Override
+        public void failed(Throwable e, Void attachment) {
+            finish(e);
+        }
+
+        /**
+         * @param error cause of failure (null = success)
+         */
+        private void finish(Throwable error) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+
+            if (error == null) {
+                result.complete(finisher.get());
+            } else {
+                result.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -13,31 +13,185 @@
 
 package blueprint.sdk.core.filesystem;
 
-import blueprint.sdk.util.cache.Cache;
+import blueprint.sdk.util.cache.ContentStore;
+import blueprint.sdk.util.cache.LoadingCache;
+import blueprint.sdk.util.cache.OffHeapCache;
+import blueprint.sdk.util.metrics.MetricRegistry;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cached File System.<br>
  * Cached items will and only be evicted by TTL(Time-To-Live).<br>
+ * Concurrent misses of a file are merged into a single read.<br>
+ * <br>
+ * With an {@link OffHeapCache}, contents are kept outside of Java heap under its memory budget,
+ * and {@link CachedFileSystem#readFileBuffer(String)} serves them without copying.<br>
+ * <br>
+ * With a {@link ContentStore}, identical contents of different files are kept once,
+ * and contents not read for a while are kept compressed.<br>
+ * <br>
+ * {@link CachedFileSystem#watch(boolean, long)} invalidates contents of files changed by others,
+ * so that long TTL is safe.<br>
+ * <br>
+ * In write-behind mode, writes are cached right away and written to files by a background flusher
+ * (see {@link Durability}). Appends are added to cached contents.
+ * Reads of a file with unflushed writes which is not cached flush it first.<br>
  *
  * @author lempel@gmail.com
  * @since 2014. 4. 23.
  */
 public class CachedFileSystem extends ConcurrentFileSystem {
     /**
-     * Cached file contents
+     * Cached file contents (null if contents are cached off-heap or in a content store)
      */
     @SuppressWarnings("WeakerAccess")
-    protected final Cache<byte[]> cache;
+    protected final LoadingCache<byte[]> cache;
+    /**
+     * Cached file contents outside of heap (null if contents are cached in heap)
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected final OffHeapCache offHeap;
+    /**
+     * Cached handles to contents of {@link CachedFileSystem#store} (null unless contents are cached in a store)
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected final LoadingCache<ContentStore.Content> handles;
+    /**
+     * Deduplicated and compressed contents (null unless contents are cached in a store)
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected final ContentStore store;
+    /**
+     * write-behind buffer (null = write-through)
+     */
+    private final WriteBehind writeBehind;
+    /**
+     * detects changes by others (null = TTL only)
+     */
+    private volatile FileWatcher watcher = null;
 
     /**
      * @param ttl TTL in millisecond
      */
     public CachedFileSystem(long ttl) {
+        this(ttl, 0L);
+    }
+
+    /**
+     * @param ttl          TTL in millisecond
+     * @param refreshAhead reload files expiring within this (millisecond, 0 = no refresh-ahead)
+     */
+    public CachedFileSystem(long ttl, long refreshAhead) {
+        super();
+
+        cache = new LoadingCache<>(5, ttl, TimeUnit.MILLISECONDS, 0L, refreshAhead, null);
+        offHeap = null;
+        handles = null;
+        store = null;
+        writeBehind = null;
+    }
+
+    /**
+     * Write-behind mode<br>
+     * If a flush fails, contents are kept and retried.
+     * Writes, flushes and syncs of the file throw the failure until a flush or sync of it succeeds.<br>
+     *
+     * @param ttl           TTL in millisecond
+     * @param durability    when flushed files are forced to the disk
+     * @param flushInterval flush interval in millisecond
+     * @param syncInterval  force interval for {@link Durability#INTERVAL} in millisecond
+     * @param maxDirtyBytes maximum bytes of unflushed writes, writers wait beyond this
+     */
+    public CachedFileSystem(long ttl, Durability durability, long flushInterval, long syncInterval,
+                            long maxDirtyBytes) {
+        super();
+
+        cache = new LoadingCache<>(5, ttl, TimeUnit.MILLISECONDS, 0L, 0L, null);
+        offHeap = null;
+        handles = null;
+        store = null;
+        writeBehind = new WriteBehind(new WriteBehind.Sink() {
+            @Override
+            public void write(String path, byte[] contents, boolean append) throws IOException {
+                if (append) {
+                    CachedFileSystem.super.append(path, contents);
+                } else {
+                    CachedFileSystem.super.writeToFile(path, contents, false);
+                }
+            }
+
+            @Override
+            public void sync(String path) throws IOException {
+                CachedFileSystem.super.sync(path);
+            }
+        }, durability, flushInterval, syncInterval, maxDirtyBytes);
+        writeBehind.start();
+    }
+
+    /**
+     * @param offHeap caches contents outside of heap (TTL of offHeap applies, disposed with this file system)
+     */
+    public CachedFileSystem(OffHeapCache offHeap) {
+        super();
+
+        if (offHeap == null) {
+            throw new NullPointerException("offHeap is null");
+        }
+
+        cache = null;
+        this.offHeap = offHeap;
+        handles = null;
+        store = null;
+        writeBehind = null;
+    }
+
+    /**
+     * @param ttl   TTL in millisecond
+     * @param store keeps contents deduplicated and compressed (may be shared with other file systems)
+     */
+    public CachedFileSystem(long ttl, ContentStore store) {
         super();
 
-        cache = new Cache<>(5, ttl, true);
+        if (store == null) {
+            throw new NullPointerException("store is null");
+        }
+
+        cache = null;
+        offHeap = null;
+        handles = new LoadingCache<>(5, ttl, TimeUnit.MILLISECONDS, 0L, 0L, null);
+        this.store = store;
+        writeBehind = null;
+    }
+
+    /**
+     * Starts invalidating contents of files changed by others.<br>
+     * Changes are detected by events of {@link java.nio.file.WatchService},
+     * or by modification time and size on access for file systems without events (ex: network file systems).<br>
+     * Files cached before this call are not watched. Watched files stay watched until changed or invalidated.<br>
+     *
+     * @param events           true: use events (files of directories without events are validated on access),
+     *                         false: validate all files on access
+     * @param validateInterval minimum interval of validations per file (msec)
+     */
+    public synchronized void watch(boolean events, long validateInterval) {
+        if (watcher != null) {
+            throw new IllegalStateException("already watching");
+        }
+
+        FileWatcher newWatcher = new FileWatcher(this::invalidate, events, validateInterval);
+        newWatcher.start();
+        watcher = newWatcher;
     }
 
     @Override
@@ -46,22 +200,48 @@ public class CachedFileSystem extends ConcurrentFileSystem {
             throw new NullPointerException("specified path is null");
         }
 
-        synchronized (cache) {
-            cache.remove(path);
+        if (writeBehind != null) {
+            writeBehind.discard(path);
         }
+        invalidate(path);
 
         return super.deleteFile(path);
     }
 
     @Override
     public boolean renameFile(String orgPath, String newPath) {
+        if (orgPath == null || newPath == null) {
+            throw new NullPointerException("at least one of specified path is null");
+        }
+
+        try {
+            flushIfDirty(orgPath);
+            flushIfDirty(newPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't flush before rename - " + orgPath, e);
+        }
+
         boolean result = super.renameFile(orgPath, newPath);
 
-        if (result) {
+        FileWatcher current = watcher;
+        if (result && current != null && offHeap == null) {
+            current.unwatch(orgPath);
+            current.watch(newPath);
+        }
+
+        if (result && cache != null) {
             synchronized (cache) {
                 byte[] contents = cache.remove(orgPath);
                 cache.put(newPath, contents);
             }
+        } else if (result && handles != null) {
+            synchronized (handles) {
+                ContentStore.Content contents = handles.remove(orgPath);
+                handles.put(newPath, contents);
+            }
+        } else if (result) {
+            invalidate(orgPath);
+            invalidate(newPath);
         }
 
         return result;
@@ -73,44 +253,425 @@ public class CachedFileSystem extends ConcurrentFileSystem {
             throw new NullPointerException("specified path is null");
         }
 
-        byte[] result = cache.get(path);
+        byte[] result;
 
-        if (result == null) {
-            result = super.readFile(path);
-            synchronized (cache) {
-                cache.put(path, result);
+        validate(path);
+        if (cache != null) {
+            try {
+                result = cache.get(path, this::load);
+            } catch (ExecutionException e) {
+                throw unwrap(path, e);
+            }
+        } else if (handles != null) {
+            try {
+                // interned array is shared with other paths
+                result = handles.get(path, key -> store.intern(load(key))).get().clone();
+            } catch (ExecutionException e) {
+                throw unwrap(path, e);
+            }
+        } else {
+            // copied under the lock of offHeap. a chunk may hold another file once the lock is released.
+            try {
+                result = offHeap.getBytes(path, this::load);
+            } catch (ExecutionException e) {
+                throw unwrap(path, e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads a file as a read-only buffer.<br>
+     * Off-heap contents are not copied. Such a buffer is valid until the file is evicted or changed.
+     * After that, it may silently hold contents of another file. Copy it right away if it's kept,
+     * or use {@link CachedFileSystem#readFile(String)} instead.<br>
+     *
+     * @param path file path
+     * @return contents of file
+     * @throws IOException Can't read
+     */
+    public ByteBuffer readFileBuffer(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        ByteBuffer result;
+
+        if (offHeap == null) {
+            result = ByteBuffer.wrap(readFile(path)).asReadOnlyBuffer();
+        } else {
+            validate(path);
+            try {
+                result = offHeap.get(path, this::load);
+            } catch (ExecutionException e) {
+                throw unwrap(path, e);
             }
         }
 
         return result;
     }
 
+    /**
+     * Serves cached contents if any, otherwise maps the file (large files are not cached).
+     */
     @Override
-    public void writeToFile(String path, byte[] contents, boolean append) throws IOException {
+    public ByteBuffer readFileMapped(String path) throws IOException {
         if (path == null) {
             throw new NullPointerException("specified path is null");
         }
 
-        super.writeToFile(path, contents, append);
+        ByteBuffer result = getCached(path);
+        if (result == null) {
+            flushIfDirty(path);
+            result = super.readFileMapped(path);
+        }
 
-        synchronized (cache) {
-            if (append) {
-                byte[] orgContents = cache.get(path);
-                byte[] newContents = new byte[orgContents.length + contents.length];
-                System.arraycopy(orgContents, 0, newContents, 0, orgContents.length);
-                System.arraycopy(contents, 0, newContents, orgContents.length, contents.length);
+        return result;
+    }
 
-                cache.put(path, newContents);
+    /**
+     * Writes cached contents if any, otherwise transfers from the file.
+     */
+    @Override
+    public long transferTo(String path, WritableByteChannel target) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (target == null) {
+            throw new NullPointerException("target is null");
+        }
+
+        long result;
+
+        ByteBuffer contents = getCached(path);
+        if (contents == null) {
+            flushIfDirty(path);
+            result = super.transferTo(path, target);
+        } else {
+            result = contents.remaining();
+            while (contents.hasRemaining()) {
+                target.write(contents);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param path file path
+     * @return read-only buffer of cached contents or null
+     */
+    private ByteBuffer getCached(String path) {
+        validate(path);
+
+        byte[] contents = getCachedBytes(path);
+        return contents == null ? null : ByteBuffer.wrap(contents).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param path file path
+     * @return cached contents in heap (off-heap contents are copied) or null
+     */
+    private byte[] getCachedBytes(String path) {
+        byte[] result = null;
+
+        if (cache != null) {
+            result = cache.get(path);
+        } else if (handles != null) {
+            ContentStore.Content contents = handles.get(path);
+            if (contents != null) {
+                result = contents.get();
+            }
+        } else if (offHeap != null) {
+            // copied under the lock of offHeap, a view may be reused by another file meanwhile
+            result = offHeap.getBytes(path);
+        }
+
+        return result;
+    }
+
+    /**
+     * reads a file to be cached
+     *
+     * @param path file path
+     * @return contents of file
+     * @throws IOException Can't read
+     */
+    private byte[] load(String path) throws IOException {
+        flushIfDirty(path);
+
+        FileWatcher current = watcher;
+        if (current != null) {
+            // before reading, so that a change while reading is detected
+            current.watch(path);
+        }
+
+        return super.readFile(path);
+    }
+
+    /**
+     * flushes unflushed writes of a file, if any (write-behind mode)
+     *
+     * @param path file path
+     * @throws IOException Can't write
+     */
+    private void flushIfDirty(String path) throws IOException {
+        if (writeBehind != null && writeBehind.isDirty(path)) {
+            writeBehind.flush(path);
+        }
+    }
+
+    /**
+     * invalidates a file changed by others (validation on access)
+     *
+     * @param path file path
+     */
+    private void validate(String path) {
+        FileWatcher current = watcher;
+        if (current != null && !current.isFresh(path)) {
+            invalidate(path);
+        }
+    }
+
+    /**
+     * @param path path of failed read
+     * @param e    failed load
+     * @return IOException to throw
+     */
+    private static IOException unwrap(String path, ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else {
+            return new IOException("Can't read file - " + path, cause);
+        }
+    }
+
+    /**
+     * removes cached contents of a file
+     *
+     * @param path file path
+     */
+    private void invalidate(String path) {
+        FileWatcher current = watcher;
+        if (current != null) {
+            current.unwatch(path);
+        }
+
+        if (cache != null) {
+            synchronized (cache) {
+                cache.remove(path);
+            }
+        } else if (handles != null) {
+            synchronized (handles) {
+                handles.remove(path);
+            }
+        } else {
+            offHeap.remove(path);
+        }
+    }
+
+    /**
+     * appends to cached contents of a file, or invalidates it if not cached (write-behind mode)
+     *
+     * @param path     file path
+     * @param contents contents to append
+     */
+    private void appendCached(String path, byte[] contents) {
+        synchronized (cache) {
+            byte[] current = cache.get(path);
+            if (current == null || (long) current.length + contents.length > Integer.MAX_VALUE - 8) {
+                // drops in-flight load, next read loads whole file
+                invalidate(path);
             } else {
+                byte[] appended = Arrays.copyOf(current, current.length + contents.length);
+                System.arraycopy(contents, 0, appended, current.length, contents.length);
+                cache.put(path, appended);
+            }
+        }
+    }
+
+    @Override
+    public void writeToFile(String path, byte[] contents, boolean append) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        if (writeBehind != null) {
+            // queue first, so that a load after invalidation flushes it
+            writeBehind.write(path, contents, append);
+        } else {
+            super.writeToFile(path, contents, append);
+        }
+
+        if (append && writeBehind != null) {
+            // visible right away, without flushing and reloading whole file
+            appendCached(path, contents);
+        } else if (append || offHeap != null) {
+            // next read loads whole file
+            invalidate(path);
+        } else if (cache != null) {
+            synchronized (cache) {
                 cache.put(path, contents);
             }
+        } else {
+            ContentStore.Content handle = store.intern(contents);
+            synchronized (handles) {
+                handles.put(path, handle);
+            }
+        }
+
+        FileWatcher current = watcher;
+        if (current != null && !append && offHeap == null && writeBehind == null) {
+            // own write is not a change
+            current.watch(path);
+        }
+    }
+
+    @Override
+    public void append(String path, byte[] contents) throws IOException {
+        if (writeBehind != null) {
+            writeToFile(path, contents, true);
+        } else {
+            super.append(path, contents);
+
+            invalidate(path);
         }
     }
 
+    @Override
+    public void sync(String path) throws IOException {
+        if (writeBehind != null) {
+            // clears failure of earlier flushes, if succeeded
+            writeBehind.sync(path);
+        } else {
+            super.sync(path);
+        }
+    }
+
+    /**
+     * Flushes all unflushed writes right now (write-behind mode)
+     *
+     * @throws IOException Can't write
+     */
+    public void flush() throws IOException {
+        if (writeBehind != null) {
+            writeBehind.flushAll();
+        }
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        super.registerMetrics(registry, prefix);
+
+        if (store != null) {
+            store.registerMetrics(registry, prefix + ".store");
+        }
+        FileWatcher current = watcher;
+        if (current != null) {
+            registry.gauge(prefix + ".watchedFiles", current::size);
+        }
+        if (writeBehind != null) {
+            registry.gauge(prefix + ".dirtyBytes", writeBehind::getDirtyBytes);
+        }
+    }
+
+    @Override
+    public byte[] read(String path, long offset, int length) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must be 0 or positive - " + offset + ", " + length);
+        }
+
+        byte[] result;
+
+        ByteBuffer contents = getCached(path);
+        if (contents == null) {
+            flushIfDirty(path);
+            result = super.read(path, offset, length);
+        } else {
+            int start = (int) Math.min(offset, contents.remaining());
+            result = new byte[Math.min(length, contents.remaining() - start)];
+            contents.position(contents.position() + start);
+            contents.get(result);
+        }
+
+        return result;
+    }
+
+    @Override
+    public InputStream openRead(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        InputStream result;
+
+        validate(path);
+        byte[] contents = getCachedBytes(path);
+        if (contents == null) {
+            flushIfDirty(path);
+            result = super.openRead(path);
+        } else {
+            result = new ByteArrayInputStream(contents);
+        }
+
+        return result;
+    }
+
+    @Override
+    public OutputStream openWrite(String path, boolean append) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        flushIfDirty(path);
+        invalidate(path);
+
+        return new FilterOutputStream(super.openWrite(path, append)) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // reads while writing may have cached partial contents
+                    invalidate(path);
+                }
+            }
+        };
+    }
+
     @Override
     public void dispose() {
+        FileWatcher current = watcher;
+        if (current != null) {
+            current.terminate();
+        }
+
+        if (writeBehind != null) {
+            // flushes before closing appenders
+            writeBehind.terminate();
+        }
+
         super.dispose();
 
-        cache.dispose();
+        if (cache != null) {
+            cache.dispose();
+        } else if (handles != null) {
+            // store may be shared
+            handles.dispose();
+        } else {
+            offHeap.dispose();
+        }
     }
 }
@@ -13,29 +13,40 @@
 
 package blueprint.sdk.core.filesystem;
 
-import blueprint.sdk.core.concurrent.lock.timestamped.TimestampedLock;
+import blueprint.sdk.core.concurrent.lock.timestamped.TimestampedReadWriteLock;
 import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+import blueprint.sdk.util.metrics.Timer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Thread Safe File System.<br>
  * <br>
- * For each and every file, a {@link TimestampedLock} is created for
+ * For each and every file, a {@link TimestampedReadWriteLock} is created for
  * synchronization.<br>
+ * Reads share the lock, writes, renames and deletes are exclusive.<br>
  * Once a mutex is created for a file, it'll be stored to
  * {@link ConcurrentFileSystem#openFiles} and reused until eviction.<br>
  * Mutex eviction is done by TTL(Time-To-Live) because of actual file sync could
  * be delayed by OS's write-back cache and flushing policy.<br>
+ * <br>
+ * Appends share the lock (so that deletes, renames and overwrites exclude them),
+ * and are grouped by kept-open channel of each file.
+ * Streams are locked only while opening.<br>
  *
  * @author lempel@gmail.com
  * @since 2014. 4. 23.
  */
-public class ConcurrentFileSystem extends GenericFileSystem {
+public class ConcurrentFileSystem extends GenericFileSystem implements Instrumented {
     /**
      * maximum evictor interval (10 minutes)
      */
@@ -54,11 +65,11 @@ public class ConcurrentFileSystem extends GenericFileSystem {
     /**
      * Monitor Objects of currently open files (key: path, value: monitor)
      */
-    private final Map<String, TimestampedLock> openFiles = new ConcurrentHashMap<>();
+    private final Map<String, PathLock> openFiles = new ConcurrentHashMap<>();
     /**
-     * lock for openFiles
+     * lock wait time (null until {@link ConcurrentFileSystem#registerMetrics(MetricRegistry, String)})
      */
-    private final ReentrantLock openFilesLock = new ReentrantLock();
+    private volatile Timer lockWait = null;
     /**
      * Periodic evictor thread for openFiles
      */
@@ -86,18 +97,18 @@ public class ConcurrentFileSystem extends GenericFileSystem {
                 }
 
                 long limit = System.currentTimeMillis() - EVICTOR_TTL;
-                openFilesLock.lock();
-                try {
-                    Set<String> keySet = openFiles.keySet();
-                    for (String key : keySet) {
-                        TimestampedLock wrapper = openFiles.get(key);
-                        // evict timed-out and unlocked mutex
-                        if (wrapper.getTimestamp() <= limit && !wrapper.isLocked()) {
-                            openFiles.remove(key);
+                for (Map.Entry<String, PathLock> entry : openFiles.entrySet()) {
+                    PathLock wrapper = entry.getValue();
+                    // evict timed-out and unlocked mutex
+                    if (wrapper.getTimestamp() <= limit && !wrapper.isLocked() && wrapper.writeLock().tryLock()) {
+                        try {
+                            // lockers of a retired lock retry with a new one
+                            wrapper.retired = true;
+                            openFiles.remove(entry.getKey(), wrapper);
+                        } finally {
+                            wrapper.writeLock().unlock();
                         }
                     }
-                } finally {
-                    openFilesLock.unlock();
                 }
             }
 
@@ -118,25 +129,78 @@ public class ConcurrentFileSystem extends GenericFileSystem {
      * @return existing lock or new lock
      */
     @SuppressWarnings("WeakerAccess")
-    protected TimestampedLock getLock(String path) {
+    protected TimestampedReadWriteLock getLock(String path) {
+        return getPathLock(path);
+    }
+
+    private PathLock getPathLock(String path) {
         if (path == null) {
             throw new NullPointerException("specified path is null");
         }
 
-        TimestampedLock result = null;
+        // get first, computeIfAbsent may lock the bin even if present
+        PathLock result = openFiles.get(path);
+        if (result == null) {
+            result = openFiles.computeIfAbsent(path, key -> new PathLock());
+        }
 
-        openFilesLock.lock();
-        try {
-            result = openFiles.get(path);
-            if (result == null) {
-                result = new TimestampedLock(true);
-                openFiles.put(path, result);
+        return result;
+    }
+
+    /**
+     * Acquires shared lock of specified path
+     *
+     * @param path file path
+     * @return acquired lock
+     */
+    private Lock lockRead(String path) {
+        while (true) {
+            PathLock monitor = getPathLock(path);
+            lock(monitor.readLock());
+            if (!monitor.retired) {
+                return monitor.readLock();
             }
-        } finally {
-            openFilesLock.unlock();
+            monitor.readLock().unlock();
         }
+    }
 
-        return result;
+    /**
+     * Acquires exclusive lock of specified path
+     *
+     * @param path file path
+     * @return acquired lock
+     */
+    private Lock lockWrite(String path) {
+        while (true) {
+            PathLock monitor = getPathLock(path);
+            lock(monitor.writeLock());
+            if (!monitor.retired) {
+                return monitor.writeLock();
+            }
+            monitor.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Acquires given lock, measures wait time if metrics are registered
+     *
+     * @param monitor lock of a file
+     */
+    private void lock(Lock monitor) {
+        Timer timer = lockWait;
+        if (timer == null) {
+            monitor.lock();
+        } else {
+            long start = timer.start();
+            monitor.lock();
+            timer.stop(start);
+        }
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        registry.gauge(prefix + ".openFiles", openFiles::size);
+        lockWait = registry.timer(prefix + ".lockWait");
     }
 
     // XXX maybe I have to override exists() to check locks too.
@@ -150,8 +214,7 @@ public class ConcurrentFileSystem extends GenericFileSystem {
         boolean result = false;
 
         if (exists(path)) {
-            TimestampedLock monitor = getLock(path);
-            monitor.lock();
+            Lock monitor = lockWrite(path);
             try {
                 result = super.deleteFile(path);
             } finally {
@@ -171,25 +234,19 @@ public class ConcurrentFileSystem extends GenericFileSystem {
         boolean result = false;
 
         if (!orgPath.equals(newPath)) {
-            TimestampedLock orgMtx;
-            TimestampedLock newMtx;
-
-            openFilesLock.lock();
+            // same order for everyone, so that crossing renames don't dead lock
+            boolean orgFirst = orgPath.compareTo(newPath) < 0;
+            Lock first = lockWrite(orgFirst ? orgPath : newPath);
             try {
-                orgMtx = getLock(orgPath);
-                newMtx = getLock(newPath);
-            } finally {
-                openFilesLock.unlock();
-            }
-
-            newMtx.lock();
-            orgMtx.lock();
-            try {
-                // can't rename if newPath is currently opened
-                result = super.renameFile(orgPath, newPath);
+                Lock second = lockWrite(orgFirst ? newPath : orgPath);
+                try {
+                    // can't rename if newPath is currently opened
+                    result = super.renameFile(orgPath, newPath);
+                } finally {
+                    second.unlock();
+                }
             } finally {
-                newMtx.unlock();
-                orgMtx.unlock();
+                first.unlock();
             }
         }
 
@@ -204,8 +261,7 @@ public class ConcurrentFileSystem extends GenericFileSystem {
 
         byte[] result = null;
 
-        TimestampedLock monitor = getLock(path);
-        monitor.lock();
+        Lock monitor = lockRead(path);
         try {
             result = super.readFile(path);
         } finally {
@@ -215,14 +271,112 @@ public class ConcurrentFileSystem extends GenericFileSystem {
         return result;
     }
 
+    @Override
+    public ByteBuffer readFileMapped(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        ByteBuffer result = null;
+
+        Lock monitor = lockRead(path);
+        try {
+            result = super.readFileMapped(path);
+        } finally {
+            monitor.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public long transferTo(String path, WritableByteChannel target) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        long result = 0L;
+
+        Lock monitor = lockRead(path);
+        try {
+            result = super.transferTo(path, target);
+        } finally {
+            monitor.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public byte[] read(String path, long offset, int length) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        byte[] result = null;
+
+        Lock monitor = lockRead(path);
+        try {
+            result = super.read(path, offset, length);
+        } finally {
+            monitor.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public InputStream openRead(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        InputStream result = null;
+
+        Lock monitor = lockRead(path);
+        try {
+            result = super.openRead(path);
+        } finally {
+            monitor.unlock();
+        }
+
+        return result;
+    }
+
+    @Override
+    public OutputStream openWrite(String path, boolean append) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        OutputStream result = null;
+
+        Lock monitor = lockWrite(path);
+        try {
+            if (!append) {
+                closeAppender(path);
+            }
+            result = super.openWrite(path, append);
+        } finally {
+            monitor.unlock();
+        }
+
+        return result;
+    }
+
     @Override
     public void writeToFile(String path, byte[] contents, boolean append) throws IOException {
         if (path == null) {
             throw new NullPointerException("specified path is null");
         }
 
-        TimestampedLock monitor = getLock(path);
-        monitor.lock();
+        if (append) {
+            // grouped by kept-open channel
+            append(path, contents);
+            return;
+        }
+
+        Lock monitor = lockWrite(path);
         try {
             super.writeToFile(path, contents, append);
         } finally {
@@ -230,10 +384,38 @@ public class ConcurrentFileSystem extends GenericFileSystem {
         }
     }
 
+    @Override
+    public void append(String path, byte[] contents) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        // shared with other appends (grouped by kept-open channel), excluded by delete/rename/overwrite
+        Lock monitor = lockRead(path);
+        try {
+            super.append(path, contents);
+        } finally {
+            monitor.unlock();
+        }
+    }
+
     @Override
     public void dispose() {
         super.dispose();
 
         evictor.terminate();
     }
+
+    /**
+     * Lock of a path
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class PathLock extends TimestampedReadWriteLock {
+        /**
+         * set by evictor under write lock, once removed from openFiles
+         */
+        volatile boolean retired = false;
+    }
 }
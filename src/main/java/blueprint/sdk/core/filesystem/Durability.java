@@ -0,0 +1,35 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.filesystem;
+
+/**
+ * When write-behind contents of {@link CachedFileSystem} are forced to the disk
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public enum Durability {
+    /**
+     * never forced (left to OS)
+     */
+    NONE,
+    /**
+     * flushed files are forced periodically (sync interval)
+     */
+    INTERVAL,
+    /**
+     * flushed files are forced after each flush
+     */
+    BATCH
+}
@@ -13,7 +13,13 @@
 
 package blueprint.sdk.core.filesystem;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Abstract File System
@@ -61,6 +67,131 @@ public abstract class FileSystem {
      */
     public abstract byte[] readFile(String path) throws IOException;
 
+    /**
+     * Read file contents without copying them into heap.<br>
+     * Large files are memory mapped. Mapped contents reflect later changes of the file,
+     * and truncating a mapped file makes access to the buffer fail.<br>
+     * Default implementation wraps {@link FileSystem#readFile(String)}.<br>
+     *
+     * @param path file path
+     * @return read-only buffer of file's contents (usually a MappedByteBuffer)
+     * @throws IOException Can't access given path
+     */
+    public ByteBuffer readFileMapped(String path) throws IOException {
+        return ByteBuffer.wrap(readFile(path)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Write file contents to a channel (socket, other file, ...) without copying them into heap.<br>
+     * Default implementation writes contents of {@link FileSystem#readFile(String)}.<br>
+     *
+     * @param path   file path
+     * @param target channel to write to (blocking mode, not closed)
+     * @return number of bytes transferred
+     * @throws IOException Can't access given path or can't write to target
+     */
+    public long transferTo(String path, WritableByteChannel target) throws IOException {
+        if (target == null) {
+            throw new NullPointerException("target is null");
+        }
+
+        ByteBuffer contents = ByteBuffer.wrap(readFile(path));
+        long result = contents.remaining();
+        while (contents.hasRemaining()) {
+            target.write(contents);
+        }
+
+        return result;
+    }
+
+    /**
+     * Read a part of file contents.<br>
+     * Default implementation copies a part of {@link FileSystem#readFile(String)}.<br>
+     *
+     * @param path   file path
+     * @param offset position to read from
+     * @param length maximum number of bytes to read
+     * @return contents (shorter than length at the end of file, empty if offset is beyond it)
+     * @throws IOException Can't access given path
+     */
+    public byte[] read(String path, long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must be 0 or positive - " + offset + ", " + length);
+        }
+
+        byte[] contents = readFile(path);
+        int start = (int) Math.min(offset, contents.length);
+        int end = (int) Math.min((long) start + length, contents.length);
+
+        byte[] result = new byte[end - start];
+        System.arraycopy(contents, start, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Open a file for streaming read.<br>
+     * Default implementation streams contents of {@link FileSystem#readFile(String)}.<br>
+     *
+     * @param path file path
+     * @return stream of file's contents (caller must close)
+     * @throws IOException Can't access given path
+     */
+    public InputStream openRead(String path) throws IOException {
+        return new ByteArrayInputStream(readFile(path));
+    }
+
+    /**
+     * Open a file for streaming write.<br>
+     * Default implementation buffers written contents and calls
+     * {@link FileSystem#writeToFile(String, byte[], boolean)} on close.<br>
+     *
+     * @param path   file path
+     * @param append true for append to current contents, false for create a new
+     *               file
+     * @return stream to file (caller must close)
+     * @throws IOException Can't access given path
+     */
+    public OutputStream openWrite(String path, boolean append) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        return new ByteArrayOutputStream() {
+            private boolean closed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    writeToFile(path, toByteArray(), append);
+                }
+            }
+        };
+    }
+
+    /**
+     * Append given contents to a file through a kept-open channel.<br>
+     * Concurrent appends to a file are written together.<br>
+     * Default implementation calls {@link FileSystem#writeToFile(String, byte[], boolean)}.<br>
+     *
+     * @param path     file path
+     * @param contents contents to append
+     * @throws IOException Can't access given path
+     */
+    public void append(String path, byte[] contents) throws IOException {
+        writeToFile(path, contents, true);
+    }
+
+    /**
+     * Force appended or written contents of a file to the disk.<br>
+     * Default implementation does nothing.<br>
+     *
+     * @param path file path
+     * @throws IOException Can't access given path
+     */
+    public void sync(String path) throws IOException {
+    }
+
     /**
      * Write given contents to a file
      *
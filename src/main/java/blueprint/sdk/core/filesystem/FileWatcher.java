@@ -0,0 +1,425 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.filesystem;
+
+import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Detects changes of cached files for {@link CachedFileSystem}.<br>
+ * <br>
+ * Directories of watched files are registered to a {@link WatchService}.
+ * On each event, modification time and size of the file are compared with those at caching time,
+ * so that writes of {@link CachedFileSystem} itself don't invalidate anything.<br>
+ * Files of directories which can't be registered (or all files, if events are not used)
+ * are validated by modification time and size on access, at most once per validation interval.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class FileWatcher extends TerminatableThread {
+    private static final Logger L = LoggerFactory.getLogger(FileWatcher.class);
+
+    /**
+     * poll interval of events (msec), to check termination
+     */
+    private static final long INTERVAL = 1000;
+
+    /**
+     * called with a path of changed file
+     */
+    private final Consumer<String> listener;
+    /**
+     * validation interval (msec)
+     */
+    private final long validateInterval;
+    /**
+     * null if events are not used
+     */
+    private final WatchService service;
+
+    /**
+     * watched files by given path
+     */
+    private final Map<String, Watched> keys = new ConcurrentHashMap<>();
+    /**
+     * watched files by real path (guarded by this)
+     */
+    private final Map<Path, Watched> files = new HashMap<>();
+    /**
+     * watched directories (guarded by this)
+     */
+    private final Map<Path, Directory> directories = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param listener         called with a path of changed file
+     * @param events           true: use events of {@link WatchService}
+     * @param validateInterval validation interval of files without events (msec)
+     */
+    FileWatcher(Consumer<String> listener, boolean events, long validateInterval) {
+        if (listener == null) {
+            throw new NullPointerException("listener is null");
+        }
+        if (validateInterval <= 0) {
+            throw new IllegalArgumentException("validateInterval must be positive - " + validateInterval);
+        }
+
+        this.listener = listener;
+        this.validateInterval = validateInterval;
+
+        WatchService watchService = null;
+        if (events) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+            } catch (IOException | UnsupportedOperationException e) {
+                L.warn("Can't create WatchService. files will be validated on access.", e);
+            }
+        }
+        service = watchService;
+
+        setName(getClass().getSimpleName() + "#" + hashCode());
+        setDaemon(true);
+    }
+
+    /**
+     * Starts watching a file with it's current modification time and size.<br>
+     * Call before reading it, so that a change while reading is detected later.<br>
+     *
+     * @param path file path
+     */
+    void watch(String path) {
+        Path file = Paths.get(path).toAbsolutePath().normalize();
+        Stamp stamp = Stamp.of(file);
+
+        synchronized (this) {
+            Watched watched = files.get(file);
+            if (watched == null) {
+                Path dir = file.getParent();
+                watched = new Watched(file, register(dir));
+                files.put(file, watched);
+            }
+
+            watched.stamp = stamp;
+            watched.checkedAt = System.currentTimeMillis();
+            if (watched.paths.add(path)) {
+                keys.put(path, watched);
+            }
+        }
+    }
+
+    /**
+     * Stops watching a file (invalidated)
+     *
+     * @param path file path
+     */
+    void unwatch(String path) {
+        if (keys.containsKey(path)) {
+            synchronized (this) {
+                Watched watched = keys.remove(path);
+                if (watched != null) {
+                    watched.paths.remove(path);
+                    if (watched.paths.isEmpty()) {
+                        files.remove(watched.file);
+                        release(watched.directory);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates a file without events, if validation interval is passed
+     *
+     * @param path file path
+     * @return false if the file is changed since watched
+     */
+    boolean isFresh(String path) {
+        boolean result = true;
+
+        Watched watched = keys.get(path);
+        if (watched != null && (watched.directory.key == null || !watched.directory.key.isValid())) {
+            long now = System.currentTimeMillis();
+            if (now - watched.checkedAt >= validateInterval) {
+                watched.checkedAt = now;
+                result = watched.stamp.equals(Stamp.of(watched.file));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of watched files
+     */
+    int size() {
+        synchronized (this) {
+            return files.size();
+        }
+    }
+
+    /**
+     * registers a directory, if possible (guarded by this)
+     *
+     * @param dir directory
+     * @return registered directory (key is null if events are not available)
+     */
+    private Directory register(Path dir) {
+        Directory result = directories.get(dir);
+
+        if (result == null) {
+            WatchKey key = null;
+            if (service != null && dir != null) {
+                try {
+                    key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                } catch (IOException | UnsupportedOperationException e) {
+                    L.warn("Can't watch directory. files will be validated on access - " + dir, e);
+                }
+            }
+
+            result = new Directory(dir, key);
+            directories.put(dir, result);
+        }
+
+        result.files++;
+        return result;
+    }
+
+    /**
+     * unregisters a directory without watched files (guarded by this)
+     *
+     * @param directory directory
+     */
+    private void release(Directory directory) {
+        if (--directory.files == 0) {
+            directories.remove(directory.path);
+            if (directory.key != null) {
+                directory.key.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        while (running && service != null) {
+            try {
+                WatchKey key = service.poll(INTERVAL, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handle(key);
+                }
+            } catch (InterruptedException ignored) {
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (Exception e) {
+                L.error("Can't handle file events", e);
+            }
+        }
+
+        terminated = true;
+    }
+
+    /**
+     * checks files of events
+     *
+     * @param key signalled key
+     */
+    private void handle(WatchKey key) {
+        Path dir = (Path) key.watchable();
+
+        List<Watched> targets = new ArrayList<>();
+        synchronized (this) {
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // lost events, check all files of the directory
+                    for (Watched watched : files.values()) {
+                        if (dir.equals(watched.file.getParent())) {
+                            targets.add(watched);
+                        }
+                    }
+                } else {
+                    Watched watched = files.get(dir.resolve((Path) event.context()));
+                    if (watched != null) {
+                        targets.add(watched);
+                    }
+                }
+            }
+        }
+
+        if (!key.reset()) {
+            L.warn("Directory is no longer watched - " + dir);
+        }
+
+        for (Watched watched : targets) {
+            if (!watched.stamp.equals(Stamp.of(watched.file))) {
+                List<String> paths;
+                synchronized (this) {
+                    paths = new ArrayList<>(watched.paths);
+                }
+                for (String path : paths) {
+                    listener.accept(path);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void terminate() {
+        super.terminate();
+
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                L.warn("Can't close WatchService", e);
+            }
+        }
+    }
+
+    /**
+     * Watched file
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Watched {
+        final Path file;
+        final Directory directory;
+        /**
+         * given paths of the file (guarded by watcher)
+         */
+        final Set<String> paths = new HashSet<>();
+        /**
+         * modification time and size when watched
+         */
+        volatile Stamp stamp;
+        /**
+         * last validation time
+         */
+        volatile long checkedAt;
+
+        Watched(Path file, Directory directory) {
+            this.file = file;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Registered directory
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Directory {
+        final Path path;
+        /**
+         * null if events are not available
+         */
+        final WatchKey key;
+        /**
+         * number of watched files (guarded by watcher)
+         */
+        int files = 0;
+
+        Directory(Path path, WatchKey key) {
+            this.path = path;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Modification time and size of a file
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Stamp {
+        /**
+         * stamp of missing file
+         */
+        static final Stamp MISSING = new Stamp(-1L, -1L);
+
+        final long modified;
+        final long size;
+
+        Stamp(long modified, long size) {
+            this.modified = modified;
+            this.size = size;
+        }
+
+        /**
+         * @param file file
+         * @return current stamp of the file
+         */
+        static Stamp of(Path file) {
+            Stamp result;
+
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                result = new Stamp(attrs.lastModifiedTime().toMillis(), attrs.size());
+            } catch (NoSuchFileException e) {
+                result = MISSING;
+            } catch (IOException e) {
+                // unknown, treat as changed
+                result = new Stamp(Long.MIN_VALUE, System.nanoTime());
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            boolean result = false;
+
+            if (obj instanceof Stamp) {
+                Stamp other = (Stamp) obj;
+                result = modified == other.modified && size == other.size;
+            }
+
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(modified) * 31 + Long.hashCode(size);
+        }
+    }
+}
@@ -14,6 +14,13 @@
 package blueprint.sdk.core.filesystem;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generic OS dependent File System
@@ -22,6 +29,22 @@ import java.io.*;
  * @since 2014. 4. 21.
  */
 public class GenericFileSystem extends FileSystem {
+    /**
+     * files smaller than this are read into heap instead of mapping (64KB)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int MAP_THRESHOLD = 64 * 1024;
+    /**
+     * maximum number of kept-open append channels
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int MAX_APPENDERS = 64;
+
+    /**
+     * kept-open append channels (key: path)
+     */
+    private final Map<String, Appender> appenders = new ConcurrentHashMap<>();
+
     @Override
     public boolean exists(String path) {
         return new File(path).exists();
@@ -34,6 +57,7 @@ public class GenericFileSystem extends FileSystem {
         }
 
         boolean result = false;
+        closeAppender(path);
         File target = new File(path);
         if (target.exists()) {
             result = target.delete();
@@ -50,6 +74,8 @@ public class GenericFileSystem extends FileSystem {
         boolean result = false;
 
         if (!orgPath.equals(newPath)) {
+            closeAppender(orgPath);
+            closeAppender(newPath);
             File target = new File(orgPath);
             result = target.renameTo(new File(newPath));
         }
@@ -57,20 +83,103 @@ public class GenericFileSystem extends FileSystem {
         return result;
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
     @Override
     public byte[] readFile(String path) throws IOException {
         if (path == null) {
             throw new NullPointerException("specified path is null");
         }
 
-        byte[] result = null;
+        byte[] result;
+
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(path);
+            result = new byte[checkSize(path, fis.getChannel().size())];
+
+            // a read can be partial
+            int offset = 0;
+            while (offset < result.length) {
+                int count = fis.read(result, offset, result.length - offset);
+                if (count < 0) {
+                    // truncated meanwhile
+                    byte[] truncated = new byte[offset];
+                    System.arraycopy(result, 0, truncated, 0, offset);
+                    result = truncated;
+                    break;
+                }
+                offset += count;
+            }
+        } finally {
+            if (fis != null) {
+                fis.close();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public ByteBuffer readFileMapped(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        ByteBuffer result;
+
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(path);
+            FileChannel channel = fis.getChannel();
+            int size = checkSize(path, channel.size());
+
+            if (size < MAP_THRESHOLD) {
+                // mapping costs more than copying
+                ByteBuffer contents = ByteBuffer.allocate(size);
+                //noinspection StatementWithEmptyBody
+                while (contents.hasRemaining() && channel.read(contents) >= 0) {
+                    // read until full or EOF
+                }
+                contents.flip();
+                result = contents.asReadOnlyBuffer();
+            } else {
+                // mapping stays valid after channel is closed
+                result = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        } finally {
+            if (fis != null) {
+                fis.close();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public long transferTo(String path, WritableByteChannel target) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (target == null) {
+            throw new NullPointerException("target is null");
+        }
+
+        long result = 0L;
 
         FileInputStream fis = null;
         try {
             fis = new FileInputStream(path);
-            result = new byte[fis.available()];
-            fis.read(result);
+            FileChannel channel = fis.getChannel();
+            long size = channel.size();
+
+            // a transfer can be partial (non-blocking target, OS limits)
+            while (result < size) {
+                long count = channel.transferTo(result, size - result, target);
+                if (count <= 0 && result >= channel.size()) {
+                    // truncated meanwhile
+                    break;
+                }
+                result += count;
+            }
         } finally {
             if (fis != null) {
                 fis.close();
@@ -80,12 +189,184 @@ public class GenericFileSystem extends FileSystem {
         return result;
     }
 
+    /**
+     * @param path file path
+     * @param size size of file
+     * @return size as an int
+     * @throws IOException file is too large for a byte array or a buffer
+     */
+    static int checkSize(String path, long size) throws IOException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("file is too large - " + path + " (" + size + " bytes)");
+        }
+
+        return (int) size;
+    }
+
+    @Override
+    public byte[] read(String path, long offset, int length) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("offset and length must be 0 or positive - " + offset + ", " + length);
+        }
+
+        byte[] result;
+
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(path);
+            FileChannel channel = fis.getChannel();
+
+            ByteBuffer contents = ByteBuffer.allocate((int) Math.max(0, Math.min(length, channel.size() - offset)));
+            while (contents.hasRemaining()) {
+                if (channel.read(contents, offset + contents.position()) < 0) {
+                    break;
+                }
+            }
+
+            if (contents.hasRemaining()) {
+                // truncated meanwhile
+                result = new byte[contents.position()];
+                System.arraycopy(contents.array(), 0, result, 0, result.length);
+            } else {
+                result = contents.array();
+            }
+        } finally {
+            if (fis != null) {
+                fis.close();
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public InputStream openRead(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        return new FileInputStream(path);
+    }
+
+    @Override
+    public OutputStream openWrite(String path, boolean append) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        return new FileOutputStream(path, append);
+    }
+
+    @Override
+    public void append(String path, byte[] contents) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+        if (contents == null) {
+            throw new NullPointerException("contents is null");
+        }
+
+        while (true) {
+            Appender appender = appenders.get(path);
+            if (appender == null) {
+                if (appenders.size() >= MAX_APPENDERS) {
+                    closeEldestAppender();
+                }
+
+                Appender newAppender = new Appender(path);
+                appender = appenders.putIfAbsent(path, newAppender);
+                if (appender == null) {
+                    appender = newAppender;
+                } else {
+                    newAppender.close();
+                }
+            }
+
+            if (appender.append(contents)) {
+                break;
+            }
+
+            // closed meanwhile, or broken by a failed write (channel is still open)
+            if (appenders.remove(path, appender)) {
+                close(appender);
+            }
+        }
+    }
+
+    @Override
+    public void sync(String path) throws IOException {
+        if (path == null) {
+            throw new NullPointerException("specified path is null");
+        }
+
+        Appender appender = appenders.get(path);
+        if (appender == null) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE);
+                channel.force(false);
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        } else {
+            appender.force();
+        }
+    }
+
+    /**
+     * Closes kept-open append channel of a file, if any
+     *
+     * @param path file path
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected void closeAppender(String path) {
+        Appender appender = appenders.remove(path);
+        if (appender != null) {
+            close(appender);
+        }
+    }
+
+    private void closeEldestAppender() {
+        Map.Entry<String, Appender> eldest = null;
+        for (Map.Entry<String, Appender> entry : appenders.entrySet()) {
+            if (eldest == null || entry.getValue().getLastUsed() < eldest.getValue().getLastUsed()) {
+                eldest = entry;
+            }
+        }
+
+        if (eldest != null && appenders.remove(eldest.getKey(), eldest.getValue())) {
+            close(eldest.getValue());
+        }
+    }
+
+    private static void close(Appender appender) {
+        try {
+            appender.close();
+        } catch (IOException ignored) {
+            // failed appends are reported to appenders
+        }
+    }
+
     @Override
     public void writeToFile(String path, byte[] contents, boolean append) throws IOException {
         if (path == null) {
             throw new NullPointerException("specified path is null");
         }
 
+        if (append) {
+            // no need to reopen the file
+            append(path, contents);
+            return;
+        }
+
+        // not to be interleaved with pending appends
+        closeAppender(path);
+
         BufferedOutputStream bos = null;
         try {
             bos = new BufferedOutputStream(new FileOutputStream(path, append));
@@ -99,6 +380,8 @@ public class GenericFileSystem extends FileSystem {
 
     @Override
     public void dispose() {
-        // NO-Op
+        for (String path : appenders.keySet()) {
+            closeAppender(path);
+        }
     }
 }
@@ -0,0 +1,608 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.filesystem;
+
+import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer of {@link CachedFileSystem}.<br>
+ * <br>
+ * Writes are kept as dirty contents per file and flushed by a background thread.
+ * Overwrites replace, appends are coalesced, so that each dirty file costs one or two writes per flush.
+ * Forcing to the disk follows {@link Durability}.<br>
+ * Writers wait while dirty bytes exceed the budget (backpressure).<br>
+ * Contents of a failed flush are kept in front of newer writes and retried.
+ * The failure is reported to writes, flushes and syncs of the file until a flush or sync of it succeeds.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class WriteBehind extends TerminatableThread {
+    private static final Logger L = LoggerFactory.getLogger(WriteBehind.class);
+
+    /**
+     * actual writes
+     */
+    interface Sink {
+        /**
+         * writes to a file
+         *
+         * @param path     file path
+         * @param contents contents to write
+         * @param append   true: append, false: overwrite
+         * @throws IOException Can't write
+         */
+        void write(String path, byte[] contents, boolean append) throws IOException;
+
+        /**
+         * forces a file to the disk
+         *
+         * @param path file path
+         * @throws IOException Can't force
+         */
+        void sync(String path) throws IOException;
+    }
+
+    private final Sink sink;
+    private final Durability durability;
+    /**
+     * flush interval (msec)
+     */
+    private final long flushInterval;
+    /**
+     * force interval for {@link Durability#INTERVAL} (msec)
+     */
+    private final long syncInterval;
+    /**
+     * maximum dirty bytes
+     */
+    private final long maxDirtyBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * signalled when dirty bytes are over budget or flush is requested
+     */
+    private final Condition flushNeeded = lock.newCondition();
+    /**
+     * signalled when dirty bytes are reduced
+     */
+    private final Condition notFull = lock.newCondition();
+    /**
+     * dirty files in order of first write (guarded by lock)
+     */
+    private final Map<String, Dirty> dirty = new LinkedHashMap<>();
+    /**
+     * total bytes of dirty contents (guarded by lock)
+     */
+    private long dirtyBytes = 0L;
+    /**
+     * last failure of each file, kept until a flush or sync of the file succeeds (guarded by lock)
+     */
+    private final Map<String, IOException> failures = new HashMap<>();
+
+    /**
+     * serializes flushes, so that contents of a file are written in order
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /**
+     * flushed but not forced files (guarded by flushLock)
+     */
+    private final Set<String> unsynced = new HashSet<>();
+    /**
+     * last force (guarded by flushLock)
+     */
+    private long lastSync = System.currentTimeMillis();
+
+    /**
+     * Constructor
+     *
+     * @param sink          actual writes
+     * @param durability    when to force to the disk
+     * @param flushInterval flush interval (msec)
+     * @param syncInterval  force interval for {@link Durability#INTERVAL} (msec)
+     * @param maxDirtyBytes maximum dirty bytes, writers wait beyond this
+     */
+    WriteBehind(Sink sink, Durability durability, long flushInterval, long syncInterval, long maxDirtyBytes) {
+        if (durability == null) {
+            throw new NullPointerException("durability is null");
+        }
+        if (flushInterval <= 0 || syncInterval <= 0) {
+            throw new IllegalArgumentException("intervals must be positive - " + flushInterval + ", " + syncInterval);
+        }
+        if (maxDirtyBytes <= 0) {
+            throw new IllegalArgumentException("maxDirtyBytes must be positive - " + maxDirtyBytes);
+        }
+
+        this.sink = sink;
+        this.durability = durability;
+        this.flushInterval = flushInterval;
+        this.syncInterval = syncInterval;
+        this.maxDirtyBytes = maxDirtyBytes;
+
+        setName(getClass().getSimpleName() + "#" + hashCode());
+        setDaemon(true);
+    }
+
+    /**
+     * Queues a write. Waits while dirty bytes are over budget.
+     *
+     * @param path     file path
+     * @param contents contents to write
+     * @param append   true for append, false for overwrite
+     * @throws IOException previous flush of the file failed, or no room since flushes of other files failed
+     */
+    void write(String path, byte[] contents, boolean append) throws IOException {
+        lock.lock();
+        try {
+            checkFailure(path);
+
+            // a write larger than budget goes alone
+            while (dirtyBytes > 0 && dirtyBytes + contents.length > maxDirtyBytes) {
+                flushNeeded.signal();
+                notFull.awaitUninterruptibly();
+                checkFailure(path);
+
+                if (!failures.isEmpty() && dirtyBytes > 0 && dirtyBytes + contents.length > maxDirtyBytes) {
+                    // room is held by contents which can't be flushed
+                    throw new IOException("no room for dirty contents, flush failed - " + failures.keySet(),
+                            failures.values().iterator().next());
+                }
+            }
+
+            Dirty file = dirty.get(path);
+            if (file == null) {
+                file = new Dirty();
+                dirty.put(path, file);
+            }
+            dirtyBytes += file.add(contents, append);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops dirty contents of a file (deleted)
+     *
+     * @param path file path
+     */
+    void discard(String path) {
+        // waits for ongoing flush, so that deleted file is not written again
+        flushLock.lock();
+        try {
+            Dirty file;
+            lock.lock();
+            try {
+                file = dirty.remove(path);
+            } finally {
+                lock.unlock();
+            }
+
+            lock.lock();
+            try {
+                if (file != null) {
+                    dirtyBytes -= file.bytes;
+                    notFull.signalAll();
+                }
+                failures.remove(path);
+            } finally {
+                lock.unlock();
+            }
+            unsynced.remove(path);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @param path file path
+     * @return true if file has unflushed contents
+     */
+    boolean isDirty(String path) {
+        lock.lock();
+        try {
+            return dirty.containsKey(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return total bytes of dirty contents
+     */
+    long getDirtyBytes() {
+        lock.lock();
+        try {
+            return dirtyBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes a file right now (read of dirty file, rename)
+     *
+     * @param path file path
+     * @throws IOException Can't write
+     */
+    void flush(String path) throws IOException {
+        flushLock.lock();
+        try {
+            Dirty file;
+            lock.lock();
+            try {
+                file = dirty.remove(path);
+            } finally {
+                lock.unlock();
+            }
+
+            if (file != null) {
+                try {
+                    write(path, file);
+                } catch (IOException e) {
+                    failed(path, file, e);
+                    throw e;
+                }
+                flushed(path, file);
+                synced(durability == Durability.BATCH);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes a file and forces it to the disk right now
+     *
+     * @param path file path
+     * @throws IOException Can't write or force
+     */
+    void sync(String path) throws IOException {
+        flushLock.lock();
+        try {
+            flush(path);
+
+            try {
+                sink.sync(path);
+            } catch (IOException e) {
+                failed(path, e);
+                throw e;
+            }
+            unsynced.remove(path);
+            recovered(path);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes all dirty files right now
+     *
+     * @throws IOException Can't write
+     */
+    void flushAll() throws IOException {
+        flushLock.lock();
+        try {
+            Map<String, Dirty> batch;
+            lock.lock();
+            try {
+                batch = new LinkedHashMap<>(dirty);
+                dirty.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            for (Map.Entry<String, Dirty> entry : batch.entrySet()) {
+                try {
+                    write(entry.getKey(), entry.getValue());
+                    flushed(entry.getKey(), entry.getValue());
+                } catch (IOException e) {
+                    L.error("Can't flush a file - " + entry.getKey(), e);
+                    failed(entry.getKey(), entry.getValue(), e);
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+
+            try {
+                synced(durability == Durability.BATCH);
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+
+            if (error != null) {
+                throw error;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * writes a dirty file (guarded by flushLock)
+     */
+    private void write(String path, Dirty file) throws IOException {
+        if (file.base != null) {
+            sink.write(path, file.base, false);
+        }
+
+        byte[] appended = file.appended();
+        if (appended != null) {
+            sink.write(path, appended, true);
+        }
+
+        unsynced.add(path);
+    }
+
+    /**
+     * forces flushed files if needed (guarded by flushLock)
+     *
+     * @param now true: force regardless of durability
+     */
+    private void synced(boolean now) throws IOException {
+        long current = System.currentTimeMillis();
+
+        if (now || (durability == Durability.INTERVAL && current - lastSync >= syncInterval)) {
+            List<String> paths = new ArrayList<>(unsynced);
+            unsynced.clear();
+            lastSync = current;
+
+            IOException error = null;
+            for (String path : paths) {
+                try {
+                    sink.sync(path);
+                    recovered(path);
+                } catch (IOException e) {
+                    L.error("Can't force a file - " + path, e);
+                    // forced again next time
+                    unsynced.add(path);
+                    failed(path, e);
+                    if (error == null) {
+                        error = e;
+                    }
+                }
+            }
+
+            if (error != null) {
+                throw error;
+            }
+        } else if (durability == Durability.NONE) {
+            unsynced.clear();
+        }
+    }
+
+    /**
+     * releases bytes of a written file and clears it's failure
+     *
+     * @param path file path
+     * @param file written contents
+     */
+    private void flushed(String path, Dirty file) {
+        lock.lock();
+        try {
+            dirtyBytes -= file.bytes;
+            failures.remove(path);
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * puts contents of a failed write back in front of newer writes of the file
+     *
+     * @param path file path
+     * @param file contents which are not written
+     * @param e    cause of failure
+     */
+    private void failed(String path, Dirty file, IOException e) {
+        lock.lock();
+        try {
+            Dirty newer = dirty.get(path);
+            if (newer == null) {
+                dirty.put(path, file);
+            } else if (newer.base != null) {
+                // overwritten meanwhile, failed contents are useless
+                dirtyBytes -= file.bytes;
+            } else {
+                file.appends.addAll(newer.appends);
+                file.bytes += newer.bytes;
+                dirty.put(path, file);
+            }
+
+            failures.put(path, e);
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * records failure of a file
+     *
+     * @param path file path
+     * @param e    cause of failure
+     */
+    private void failed(String path, IOException e) {
+        lock.lock();
+        try {
+            failures.put(path, e);
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * clears failure of a forced file, unless it has contents to retry
+     *
+     * @param path file path
+     */
+    private void recovered(String path) {
+        lock.lock();
+        try {
+            if (!dirty.containsKey(path)) {
+                failures.remove(path);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * throws last failure of a file (guarded by lock)
+     *
+     * @param path file path
+     */
+    private void checkFailure(String path) throws IOException {
+        IOException e = failures.get(path);
+        if (e != null) {
+            throw new IOException("background flush failed - " + path, e);
+        }
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        boolean failed = false;
+        while (running) {
+            lock.lock();
+            try {
+                // writers waiting for room can't wait for next interval, but failed files are retried by interval
+                if (running && (failed || (dirtyBytes < maxDirtyBytes && !lock.hasWaiters(notFull)))) {
+                    flushNeeded.await(flushInterval, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException ignored) {
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                flushAll();
+                failed = false;
+            } catch (IOException e) {
+                // already logged and kept for the files
+                failed = true;
+            }
+        }
+
+        terminated = true;
+    }
+
+    /**
+     * Flushes all, forces unless {@link Durability#NONE}, then stops flusher
+     */
+    @Override
+    public void terminate() {
+        super.terminate();
+
+        lock.lock();
+        try {
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flushLock.lock();
+            try {
+                flushAll();
+                synced(durability != Durability.NONE);
+            } finally {
+                flushLock.unlock();
+            }
+        } catch (IOException e) {
+            L.error("Can't flush dirty files on termination", e);
+        }
+    }
+
+    /**
+     * Dirty contents of a file
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Dirty {
+        /**
+         * contents to overwrite with (null = append only)
+         */
+        byte[] base = null;
+        /**
+         * contents to append after base
+         */
+        final List<byte[]> appends = new ArrayList<>();
+        /**
+         * total bytes
+         */
+        long bytes = 0L;
+
+        /**
+         * @return change of bytes
+         */
+        long add(byte[] contents, boolean append) {
+            long before = bytes;
+
+            if (append) {
+                appends.add(contents);
+                bytes += contents.length;
+            } else {
+                // overwrite makes everything before useless
+                base = contents;
+                appends.clear();
+                bytes = contents.length;
+            }
+
+            return bytes - before;
+        }
+
+        /**
+         * @return appended contents as one array (null = nothing)
+         */
+        byte[] appended() {
+            byte[] result = null;
+
+            if (appends.size() == 1) {
+                result = appends.get(0);
+            } else if (!appends.isEmpty()) {
+                result = new byte[(int) (bytes - (base == null ? 0 : base.length))];
+                int offset = 0;
+                for (byte[] contents : appends) {
+                    System.arraycopy(contents, 0, result, offset, contents.length);
+                    offset += contents.length;
+                }
+            }
+
+            return result;
+        }
+    }
+}
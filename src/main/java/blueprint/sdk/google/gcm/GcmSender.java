@@ -27,6 +27,9 @@ import org.slf4j.LoggerFactory;
 import blueprint.sdk.google.gcm.bind.Request;
 import blueprint.sdk.google.gcm.bind.Response;
 import blueprint.sdk.util.Validator;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+import blueprint.sdk.util.metrics.Timer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -37,7 +40,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * @since 2013. 12. 3.
  * @deprecated GCM is replaced by FCM - https://firebase.google.com/docs/cloud-messaging
  */
-public class GcmSender {
+public class GcmSender implements Instrumented {
     private static final Logger L = LoggerFactory.getLogger(GcmSender.class);
 
     @SuppressWarnings("CanBeFinal")
@@ -50,6 +53,11 @@ public class GcmSender {
 
     private final String apiKey;
 
+    /**
+     * latency of each HTTP request (null until {@link GcmSender#registerMetrics(MetricRegistry, String)})
+     */
+    private volatile Timer sendLatency = null;
+
     /**
      * Constructor
      *
@@ -88,6 +96,25 @@ public class GcmSender {
     }
 
     private GcmResponse send(String json) throws IOException {
+        Timer timer = sendLatency;
+        if (timer == null) {
+            return request(json);
+        }
+
+        long start = timer.start();
+        try {
+            return request(json);
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        sendLatency = registry.timer(prefix + ".sendLatency");
+    }
+
+    private GcmResponse request(String json) throws IOException {
         HttpURLConnection http = (HttpURLConnection) new URL(GCM_URL).openConnection();
         http.setRequestMethod("POST");
         http.addRequestProperty("Authorization", "key=" + apiKey);
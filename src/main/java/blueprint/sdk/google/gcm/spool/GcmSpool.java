@@ -13,6 +13,8 @@
 
 package blueprint.sdk.google.gcm.spool;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 
 import org.h2.jdbcx.JdbcDataSource;
@@ -24,6 +26,8 @@ import blueprint.sdk.core.concurrent.WorkerGroup;
 import blueprint.sdk.google.gcm.GcmSender;
 import blueprint.sdk.util.Terminatable;
 import blueprint.sdk.util.queue.H2Queue;
+import blueprint.sdk.util.queue.LogQueue;
+import blueprint.sdk.util.queue.MessageQueue;
 import blueprint.sdk.util.queue.Queue;
 
 /**
@@ -36,7 +40,7 @@ import blueprint.sdk.util.queue.Queue;
 public class GcmSpool implements Terminatable {
     private static final Logger L = LoggerFactory.getLogger(GcmSpool.class);
 
-    private final H2Queue queue;
+    private final MessageQueue queue;
 
     private boolean terminated = false;
 
@@ -70,16 +74,63 @@ public class GcmSpool implements Terminatable {
     @SuppressWarnings("WeakerAccess")
     public GcmSpool(JdbcDataSource datasrc, String apiKey, int retries, GcmErrorHandler errHandler,
                     Class<? extends Worker<String>> workerClass, int workerCount) throws Exception {
+        this(newH2Queue(datasrc), apiKey, retries, errHandler, workerClass, workerCount);
+    }
+
+    /**
+     * Constructor (uses default error handler and worker)
+     *
+     * @param queueDir    directory for {@link LogQueue}
+     * @param apiKey      API Key for GCM
+     * @param retries     number of retry attempts
+     * @param workerCount number of workers
+     * @throws Exception Can't initialize {@link LogQueue} or {@link GcmSpoolWorker}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public GcmSpool(File queueDir, String apiKey, int retries, int workerCount) throws Exception {
+        this(queueDir, apiKey, retries, new GcmErrorHandler(), GcmSpoolWorker.class, workerCount);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param queueDir    directory for {@link LogQueue}
+     * @param apiKey      API Key for GCM
+     * @param retries     number of retry attempts
+     * @param errHandler  error handler
+     * @param workerClass Worker class
+     * @param workerCount number of workers
+     * @throws Exception Can't initialize {@link LogQueue} or {@link GcmSpoolWorker}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public GcmSpool(File queueDir, String apiKey, int retries, GcmErrorHandler errHandler,
+                    Class<? extends Worker<String>> workerClass, int workerCount) throws Exception {
+        this(newLogQueue(queueDir), apiKey, retries, errHandler, workerClass, workerCount);
+    }
+
+    private GcmSpool(MessageQueue queue, String apiKey, int retries, GcmErrorHandler errHandler,
+                     Class<? extends Worker<String>> workerClass, int workerCount) throws Exception {
         L.info("Current destination = " + GcmSender.GCM_URL);
 
-        queue = new H2Queue(datasrc);
-        queue.init();
+        this.queue = queue;
 
         workerGroup = new GcmSpoolWorkerGroup<String, Queue<String>>(queue, workerClass, workerCount, apiKey, retries,
                 errHandler);
         workerGroup.start();
     }
 
+    private static H2Queue newH2Queue(JdbcDataSource datasrc) throws SQLException {
+        H2Queue result = new H2Queue(datasrc);
+        result.init();
+        return result;
+    }
+
+    private static LogQueue newLogQueue(File queueDir) throws IOException {
+        LogQueue result = new LogQueue(queueDir);
+        result.init();
+        return result;
+    }
+
     @Override
     public boolean isValid() {
         return !terminated;
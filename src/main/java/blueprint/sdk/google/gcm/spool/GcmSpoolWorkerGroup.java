@@ -63,13 +63,10 @@ public class GcmSpoolWorkerGroup<J, Q> extends WorkerGroup<J, Queue<J>> {
     }
 
     @Override
-    protected void newWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
+    protected Worker<J> createWorker() throws NoSuchMethodException, InstantiationException, IllegalAccessException,
             InvocationTargetException {
-        Worker<J> aWorker;
         Constructor<? extends Worker<J>> cons = workerClass.getConstructor(Queue.class, Object.class, String.class,
                 int.class, GcmErrorHandler.class);
-        aWorker = cons.newInstance(jobQueue, deathMonitor, apiKey, retries, errHandler);
-        workers.add(aWorker);
-        aWorker.start();
+        return cons.newInstance(jobQueue, deathMonitor, apiKey, retries, errHandler);
     }
 }
\ No newline at end of file
@@ -13,36 +13,58 @@
 
 package blueprint.sdk.util;
 
+import blueprint.sdk.util.metrics.Metric;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
- * Thread-Safe Counter
+ * Thread-Safe Counter<br>
+ * Striped (cell per contending thread), so that concurrent updates don't contend on a single lock.<br>
  *
  * @author lempel@gmail.com
  * @since 2009. 2. 26.
  */
-public class Counter {
-    private long total = 0;
+public class Counter implements Metric {
+    private final LongAdder total = new LongAdder();
 
     public void increase() {
-        synchronized (this) {
-            total++;
-        }
+        total.increment();
+    }
+
+    public void add(long amount) {
+        total.add(amount);
     }
 
     public void decrease() {
-        synchronized (this) {
-            total--;
-        }
+        total.decrement();
     }
 
+    /**
+     * Resets to 0.<br>
+     * Updates during reset may or may not be counted.<br>
+     */
     public void reset() {
-        synchronized (this) {
-            total = 0;
-        }
+        total.reset();
     }
 
+    /**
+     * @return current count (not an atomic snapshot under concurrent updates)
+     */
     public long count() {
-        synchronized (this) {
-            return total;
-        }
+        return total.sum();
+    }
+
+    /**
+     * @return count before reset
+     */
+    public long countThenReset() {
+        return total.sumThenReset();
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        return Collections.singletonMap("count", count());
     }
 }
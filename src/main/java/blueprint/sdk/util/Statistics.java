@@ -13,22 +13,114 @@
 
 package blueprint.sdk.util;
 
+import blueprint.sdk.util.metrics.Metric;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Statistics Utility<br>
  * Simple yet...<br>
+ * <br>
+ * Lock-free. Tracks sum, count, min, max and standard deviation.<br>
+ * With a histogram, percentiles are also available. Samples are counted in log-scaled buckets
+ * (2^precision linear sub-buckets per power of 2), so relative error is at most 2^-precision.<br>
+ * <br>
+ * Use {@link Statistics#snapshotAndReset()} for interval statistics.
+ * Samples recorded during reset may land in either interval.<br>
  *
  * @author lempel@gmail.com
  * @since 2009. 2. 25.
  */
 @SuppressWarnings("WeakerAccess")
-public class Statistics {
-    private long sum = 0;
-    private long count = 0;
+public class Statistics implements Metric {
+    /**
+     * default precision of histogram (relative error &lt;= 1/128)
+     */
+    public static final int DEFAULT_PRECISION = 7;
+
+    private final LongAdder sum = new LongAdder();
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder squares = new DoubleAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    /**
+     * number of linear sub-buckets per power of 2 (bits)
+     */
+    private final int precision;
+    /**
+     * log-scaled buckets (null = no histogram)
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * Constructor (no histogram)
+     */
+    public Statistics() {
+        this(false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param histogram true: keep a histogram with {@link Statistics#DEFAULT_PRECISION}
+     */
+    public Statistics(boolean histogram) {
+        this(histogram ? DEFAULT_PRECISION : 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param precision precision of histogram (1 ~ 10 bits, 0 = no histogram)
+     */
+    public Statistics(int precision) {
+        if (precision < 0 || precision > 10) {
+            throw new IllegalArgumentException("precision must be between 0 and 10 - " + precision);
+        }
+
+        this.precision = precision;
+        buckets = precision == 0 ? null : new AtomicLongArray((64 - precision) << precision);
+    }
 
     public void add(final long amount) {
-        synchronized (this) {
-            sum += amount;
-            count++;
+        sum.add(amount);
+        count.increment();
+        squares.add((double) amount * amount);
+        min.accumulate(amount);
+        max.accumulate(amount);
+
+        if (buckets != null) {
+            buckets.incrementAndGet(indexOf(amount));
+        }
+    }
+
+    /**
+     * Adds samples of which values are unknown.<br>
+     * Each sample is regarded as amount / samples (for min, max, deviation and histogram).<br>
+     *
+     * @param amount  total amount of samples
+     * @param samples number of samples
+     */
+    public void add(final long amount, final long samples) {
+        if (samples <= 0) {
+            return;
+        }
+
+        long mean = amount / samples;
+
+        sum.add(amount);
+        count.add(samples);
+        squares.add((double) mean * mean * samples);
+        min.accumulate(mean);
+        max.accumulate(mean);
+
+        if (buckets != null) {
+            buckets.addAndGet(indexOf(mean), samples);
         }
     }
 
@@ -36,39 +128,284 @@ public class Statistics {
      * @return current mean
      */
     public long mean() {
-        long result;
-        synchronized (this) {
-            if (sum == 0) {
-                result = 0;
-            } else {
-                result = sum / count;
-            }
-        }
-        return result;
+        long total = count.sum();
+        return total == 0 ? 0 : sum.sum() / total;
     }
 
     /**
      * @return current sum
      */
     public long sum() {
-        synchronized (this) {
-            return sum;
-        }
+        return sum.sum();
     }
 
     /**
      * @return current count
      */
     public long count() {
-        synchronized (this) {
-            return count;
+        return count.sum();
+    }
+
+    /**
+     * @return minimum sample (0 if empty)
+     */
+    public long min() {
+        return count.sum() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * @return maximum sample (0 if empty)
+     */
+    public long max() {
+        return count.sum() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * @return population standard deviation
+     */
+    public double stddev() {
+        return stddev(count.sum(), sum.sum(), squares.sum());
+    }
+
+    /**
+     * @param percentile percentile (0 ~ 100, ex: 99.9)
+     * @return upper bound of bucket which contains given percentile (0 if empty)
+     * @throws IllegalStateException no histogram
+     */
+    public long percentile(double percentile) {
+        if (buckets == null) {
+            throw new IllegalStateException("no histogram");
+        }
+
+        long[] counts = new long[buckets.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return percentile(counts, percentile, max());
+    }
+
+    /**
+     * @return current statistics
+     */
+    public Snapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * @return statistics since last reset
+     */
+    public Snapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    private Snapshot snapshot(boolean reset) {
+        Snapshot result = new Snapshot();
+
+        if (reset) {
+            result.count = count.sumThenReset();
+            result.sum = sum.sumThenReset();
+            result.squares = squares.sumThenReset();
+            result.min = min.getThenReset();
+            result.max = max.getThenReset();
+        } else {
+            result.count = count.sum();
+            result.sum = sum.sum();
+            result.squares = squares.sum();
+            result.min = min.get();
+            result.max = max.get();
+        }
+        if (result.count == 0) {
+            result.min = 0;
+            result.max = 0;
+        }
+
+        if (buckets != null) {
+            result.counts = new long[buckets.length()];
+            for (int i = 0; i < result.counts.length; i++) {
+                result.counts[i] = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+            }
         }
+
+        return result;
     }
 
     public void reset() {
-        synchronized (this) {
-            sum = 0;
-            count = 0;
+        sum.reset();
+        count.reset();
+        squares.reset();
+        min.reset();
+        max.reset();
+
+        if (buckets != null) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * @param value a sample
+     * @return index of bucket for given sample
+     */
+    private int indexOf(long value) {
+        int result;
+
+        long subBuckets = 1L << precision;
+        if (value < subBuckets) {
+            result = (int) Math.max(0, value);
+        } else {
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int shift = exponent - precision;
+            result = ((shift + 1) << precision) + (int) ((value >>> shift) - subBuckets);
+        }
+
+        return result;
+    }
+
+    /**
+     * @param index index of a bucket
+     * @return largest value of given bucket
+     */
+    private long upperBoundOf(int index) {
+        long result;
+
+        long subBuckets = 1L << precision;
+        if (index < subBuckets) {
+            result = index;
+        } else {
+            int shift = (index >>> precision) - 1;
+            long mantissa = subBuckets + (index & (subBuckets - 1));
+            result = ((mantissa + 1) << shift) - 1;
+        }
+
+        return result;
+    }
+
+    private long percentile(long[] counts, double percentile, long max) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+
+        long result = 0;
+        if (total > 0) {
+            long rank = (long) Math.ceil(Math.min(100d, Math.max(0d, percentile)) / 100d * total);
+            if (rank < 1) {
+                rank = 1;
+            }
+
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    result = Math.min(upperBoundOf(i), max);
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static double stddev(long count, long sum, double squares) {
+        double result = 0d;
+
+        if (count > 0) {
+            double mean = (double) sum / count;
+            result = Math.sqrt(Math.max(0d, squares / count - mean * mean));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Snapshot snapshot = snapshot();
+
+        Map<String, Number> result = new LinkedHashMap<>();
+        result.put("count", snapshot.count());
+        result.put("mean", snapshot.mean());
+        result.put("min", snapshot.min());
+        result.put("max", snapshot.max());
+        result.put("stddev", snapshot.stddev());
+        if (buckets != null) {
+            result.put("p50", snapshot.percentile(50));
+            result.put("p99", snapshot.percentile(99));
+            result.put("p999", snapshot.percentile(99.9));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Immutable statistics of an interval
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    public final class Snapshot {
+        private long count;
+        private long sum;
+        private double squares;
+        private long min;
+        private long max;
+        private long[] counts;
+
+        private Snapshot() {
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long sum() {
+            return sum;
+        }
+
+        public long mean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        public long min() {
+            return min;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double stddev() {
+            return Statistics.stddev(count, sum, squares);
+        }
+
+        /**
+         * @param percentile percentile (0 ~ 100, ex: 99.9)
+         * @return upper bound of bucket which contains given percentile (0 if empty)
+         * @throws IllegalStateException no histogram
+         */
+        public long percentile(double percentile) {
+            if (counts == null) {
+                throw new IllegalStateException("no histogram");
+            }
+
+            return Statistics.this.percentile(counts, percentile, max);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("count=").append(count).append(", mean=").append(mean()).append(", min=").append(min)
+                    .append(", max=").append(max).append(", stddev=").append(String.format("%.2f", stddev()));
+            if (counts != null) {
+                builder.append(", p50=").append(percentile(50)).append(", p99=").append(percentile(99))
+                        .append(", p999=").append(percentile(99.9));
+            }
+            return builder.toString();
         }
     }
 }
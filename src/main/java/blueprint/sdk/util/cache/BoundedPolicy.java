@@ -0,0 +1,527 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Size bounded eviction policy for {@link Cache} (W-TinyLFU).<br>
+ * <br>
+ * New items enter a small LRU window (1% of maximum).
+ * Items leaving the window compete with the LRU victim of main space,
+ * and only the more frequently used one stays (TinyLFU admission).<br>
+ * Main space is a segmented LRU (probation/protected, 80% protected).<br>
+ * <br>
+ * Reads are recorded in lossy striped ring buffers, writes in a queue.
+ * Both are replayed under a lock by whichever thread gets it first,
+ * so that {@link Cache#get(String)} never blocks.<br>
+ * Maximum is enforced after buffers are drained, so cache may exceed it briefly.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> element type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class BoundedPolicy<T> {
+    private static final byte NONE = 0;
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+
+    /**
+     * percentage of window space
+     */
+    private static final int WINDOW_PERCENT = 1;
+    /**
+     * percentage of protected segment (of main space)
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /**
+     * maximum number of read buffers
+     */
+    private static final int MAX_STRIPES = 64;
+
+    private final Map<String, CacheItem<T>> cache;
+    /**
+     * called with evicted items
+     */
+    private final Consumer<CacheItem<T>> evicted;
+
+    /**
+     * maximum weight (or number of items)
+     */
+    private final long maximum;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ReadBuffer<T>[] readBuffers;
+    private final Queue<Runnable> writeBuffer = new ConcurrentLinkedQueue<>();
+
+    // guarded by evictionLock
+    private final AccessOrder<T> window = new AccessOrder<>();
+    private final AccessOrder<T> probation = new AccessOrder<>();
+    private final AccessOrder<T> protect = new AccessOrder<>();
+    private final FrequencySketch sketch;
+    private long windowWeight = 0L;
+    private long protectedWeight = 0L;
+    private long items = 0L;
+
+    /**
+     * total weight of linked items (written under evictionLock)
+     */
+    private volatile long weightedSize = 0L;
+
+    /**
+     * Constructor
+     *
+     * @param cache   map of items
+     * @param maximum maximum weight (or number of items)
+     * @param evicted called with evicted items (under lock)
+     */
+    BoundedPolicy(Map<String, CacheItem<T>> cache, long maximum, Consumer<CacheItem<T>> evicted) {
+        if (maximum < 0) {
+            throw new IllegalArgumentException("maximum must be 0 or positive - " + maximum);
+        }
+
+        this.cache = cache;
+        this.evicted = evicted;
+        this.maximum = maximum;
+        windowMaximum = maximum * WINDOW_PERCENT / 100;
+        protectedMaximum = (maximum - windowMaximum) * PROTECTED_PERCENT / 100;
+
+        sketch = new FrequencySketch(Math.min(maximum, 1024));
+
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        readBuffers = newReadBuffers(stripes);
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    /**
+     * @param length length of array
+     * @param <T>    element class
+     * @return new array of read buffers
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ReadBuffer<T>[] newReadBuffers(int length) {
+        return (ReadBuffer<T>[]) new ReadBuffer<?>[length];
+    }
+
+    /**
+     * records a read. Never blocks, may be dropped under contention.
+     *
+     * @param item item read
+     */
+    void onRead(CacheItem<T> item) {
+        int index = FrequencySketch.spread((int) Thread.currentThread().getId()) & (readBuffers.length - 1);
+        if (!readBuffers[index].offer(item)) {
+            // buffer is full. help draining.
+            tryDrain();
+        }
+    }
+
+    /**
+     * records a write (item is already in the map)
+     *
+     * @param item     added item
+     * @param replaced replaced item or null
+     */
+    void onWrite(CacheItem<T> item, CacheItem<T> replaced) {
+        if (replaced != null) {
+            writeBuffer.offer(() -> unlink(replaced));
+        }
+        writeBuffer.offer(() -> link(item));
+
+        drain();
+    }
+
+    /**
+     * records a removal (item is already out of the map)
+     *
+     * @param item removed item
+     */
+    void onRemove(CacheItem<T> item) {
+        writeBuffer.offer(() -> unlink(item));
+
+        drain();
+    }
+
+    /**
+     * Replays buffered writes and evicts while there's something to replay.<br>
+     * Gives up if another thread is already doing it.<br>
+     */
+    private void drain() {
+        // re-check after unlock, so that writes queued while lock was held are not left behind
+        while (!writeBuffer.isEmpty() && evictionLock.tryLock()) {
+            try {
+                maintain();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void tryDrain() {
+        if (evictionLock.tryLock()) {
+            try {
+                maintain();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays all buffers and evicts (blocks for lock)
+     */
+    void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintain();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * forgets all items (map must be cleared by caller)
+     */
+    void clear() {
+        evictionLock.lock();
+        try {
+            for (ReadBuffer<T> buffer : readBuffers) {
+                buffer.drain(null);
+            }
+            writeBuffer.clear();
+
+            window.clear();
+            probation.clear();
+            protect.clear();
+            windowWeight = 0L;
+            protectedWeight = 0L;
+            items = 0L;
+            weightedSize = 0L;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * @return total weight of items (or number of items)
+     */
+    long weightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * @return maximum weight (or number of items)
+     */
+    long getMaximum() {
+        return maximum;
+    }
+
+    // guarded by evictionLock
+    private void maintain() {
+        for (ReadBuffer<T> buffer : readBuffers) {
+            buffer.drain(this::onAccess);
+        }
+
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            task.run();
+        }
+
+        evict();
+    }
+
+    // guarded by evictionLock
+    private void link(CacheItem<T> item) {
+        if (item.retired) {
+            // removed before being linked
+            return;
+        }
+
+        item.queue = WINDOW;
+        window.add(item);
+        windowWeight += item.weight;
+        weightedSize += item.weight;
+        items++;
+
+        sketch.ensureCapacity(items);
+        sketch.increment(hash(item));
+    }
+
+    // guarded by evictionLock
+    private void unlink(CacheItem<T> item) {
+        switch (item.queue) {
+            case WINDOW:
+                window.remove(item);
+                windowWeight -= item.weight;
+                break;
+            case PROBATION:
+                probation.remove(item);
+                break;
+            case PROTECTED:
+                protect.remove(item);
+                protectedWeight -= item.weight;
+                break;
+            default:
+                item.retired = true;
+                return;
+        }
+
+        weightedSize -= item.weight;
+        items--;
+        item.queue = NONE;
+        item.retired = true;
+    }
+
+    // guarded by evictionLock
+    private void onAccess(CacheItem<T> item) {
+        switch (item.queue) {
+            case WINDOW:
+                sketch.increment(hash(item));
+                window.moveToTail(item);
+                break;
+            case PROBATION:
+                sketch.increment(hash(item));
+                probation.remove(item);
+                item.queue = PROTECTED;
+                protect.add(item);
+                protectedWeight += item.weight;
+                demote();
+                break;
+            case PROTECTED:
+                sketch.increment(hash(item));
+                protect.moveToTail(item);
+                break;
+            default:
+                // not linked yet or already removed
+                break;
+        }
+    }
+
+    /**
+     * moves overflowed protected items to probation
+     */
+    private void demote() {
+        while (protectedWeight > protectedMaximum) {
+            CacheItem<T> item = protect.head;
+            if (item == null) {
+                break;
+            }
+
+            protect.remove(item);
+            protectedWeight -= item.weight;
+            item.queue = PROBATION;
+            probation.add(item);
+        }
+    }
+
+    // guarded by evictionLock
+    private void evict() {
+        // window overflow becomes candidates at the tail of probation
+        CacheItem<T> candidate = null;
+        while (windowWeight > windowMaximum) {
+            CacheItem<T> item = window.head;
+            window.remove(item);
+            windowWeight -= item.weight;
+            item.queue = PROBATION;
+            probation.add(item);
+
+            if (candidate == null) {
+                candidate = item;
+            }
+        }
+
+        while (weightedSize > maximum) {
+            CacheItem<T> victim = probation.head;
+
+            if (victim == null) {
+                // probation is empty. evict from protected, then from window.
+                victim = protect.head != null ? protect.head : window.head;
+                if (victim == null) {
+                    break;
+                }
+                remove(victim);
+            } else if (candidate == null || candidate == victim) {
+                if (candidate == victim) {
+                    candidate = candidate.next;
+                }
+                remove(victim);
+            } else {
+                CacheItem<T> loser;
+                if (candidate.weight > maximum) {
+                    loser = candidate;
+                } else if (sketch.frequency(hash(candidate)) > sketch.frequency(hash(victim))) {
+                    loser = victim;
+                } else {
+                    loser = candidate;
+                }
+
+                if (loser == candidate) {
+                    candidate = candidate.next;
+                }
+                remove(loser);
+            }
+        }
+    }
+
+    /**
+     * evicts an item
+     */
+    private void remove(CacheItem<T> item) {
+        unlink(item);
+
+        if (cache.remove(item.key, item)) {
+            evicted.accept(item);
+        }
+    }
+
+    private static int hash(CacheItem<?> item) {
+        return FrequencySketch.spread(item.key.hashCode());
+    }
+
+    /**
+     * Doubly linked list of items in access order (head = eldest)<br>
+     * <b>Not Thread Safe</b><br>
+     *
+     * @param <T> element type
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class AccessOrder<T> {
+        CacheItem<T> head;
+        CacheItem<T> tail;
+
+        void add(CacheItem<T> item) {
+            item.prev = tail;
+            item.next = null;
+            if (tail == null) {
+                head = item;
+            } else {
+                tail.next = item;
+            }
+            tail = item;
+        }
+
+        void remove(CacheItem<T> item) {
+            if (item.prev == null) {
+                head = item.next;
+            } else {
+                item.prev.next = item.next;
+            }
+            if (item.next == null) {
+                tail = item.prev;
+            } else {
+                item.next.prev = item.prev;
+            }
+            item.prev = null;
+            item.next = null;
+        }
+
+        void moveToTail(CacheItem<T> item) {
+            if (item != tail) {
+                remove(item);
+                add(item);
+            }
+        }
+
+        void clear() {
+            CacheItem<T> item = head;
+            while (item != null) {
+                CacheItem<T> next = item.next;
+                item.prev = null;
+                item.next = null;
+                item.queue = NONE;
+                item.retired = true;
+                item = next;
+            }
+            head = null;
+            tail = null;
+        }
+    }
+
+    /**
+     * Lossy bounded ring buffer of reads.<br>
+     * Many producers, drained by the owner of eviction lock.<br>
+     *
+     * @param <T> element type
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class ReadBuffer<T> {
+        private static final int SIZE = 16;
+        private static final int MASK = SIZE - 1;
+
+        private final AtomicReferenceArray<CacheItem<T>> buffer = new AtomicReferenceArray<>(SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        /**
+         * written by drainer only
+         */
+        private volatile long reads = 0L;
+
+        /**
+         * @param item item read
+         * @return false if buffer is full (read is dropped)
+         */
+        boolean offer(CacheItem<T> item) {
+            long tail = writes.get();
+            if (tail - reads >= SIZE) {
+                return false;
+            }
+
+            if (writes.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) (tail & MASK), item);
+            }
+            // lost the race. dropping is fine.
+            return true;
+        }
+
+        /**
+         * @param consumer consumer of items (null = discard)
+         */
+        void drain(Consumer<CacheItem<T>> consumer) {
+            long head = reads;
+            long tail = writes.get();
+
+            for (; head < tail; head++) {
+                int index = (int) (head & MASK);
+                CacheItem<T> item = buffer.get(index);
+                if (item == null) {
+                    // not published yet
+                    break;
+                }
+
+                buffer.lazySet(index, null);
+                if (consumer != null) {
+                    consumer.accept(item);
+                }
+            }
+
+            reads = head;
+        }
+    }
+}
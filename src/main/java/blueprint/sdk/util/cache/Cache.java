@@ -14,20 +14,31 @@
 package blueprint.sdk.util.cache;
 
 import blueprint.sdk.util.Validator;
-import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import blueprint.sdk.core.concurrent.TimingWheel;
+import blueprint.sdk.util.metrics.CacheMetrics;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
 
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 /**
- * Very simple Object cache with lazy eviction.
+ * Very simple Object cache with lazy eviction.<br>
+ * <br>
+ * Optionally bounded by number of items or total weight of elements.
+ * Bounded cache evicts by frequency and recency (W-TinyLFU, see {@link BoundedPolicy}).<br>
+ * <br>
+ * Items expire after write (default) or after access ({@link Cache#setExpiry(Expiry)}),
+ * with cache wide or per item time to live.
+ * Active eviction is done by a thread shared by all caches, which visits only due items.<br>
  *
  * @param <T> element type
  * @author lempel@gmail.com
  * @since 2013. 6. 28.
  */
-public class Cache<T> {
+public class Cache<T> implements Instrumented {
     /**
      * actual cache
      */
@@ -39,9 +50,28 @@ public class Cache<T> {
     private final long timeToLive;
 
     /**
-     * active evictor
+     * true: expired items are evicted by {@link CacheExpirer}
      */
-    private CacheEvictor evictor;
+    private boolean activeEviction = false;
+
+    /**
+     * what resets time to live of items
+     */
+    private volatile Expiry expiry = Expiry.AFTER_WRITE;
+
+    /**
+     * size bound (null = unbounded)
+     */
+    private final BoundedPolicy<T> policy;
+    /**
+     * weigher of elements (null = 1 for each)
+     */
+    private final ToLongFunction<? super T> weigher;
+
+    /**
+     * null until {@link Cache#registerMetrics(MetricRegistry, String)}
+     */
+    private volatile CacheMetrics metrics = null;
 
     /**
      * Create an instance of Cache with very lazy eviction policy.<br>
@@ -62,36 +92,97 @@ public class Cache<T> {
      */
     @SuppressWarnings("WeakerAccess")
     public Cache(int initialSize, long timeToLive) {
-        super();
-
-        cache = new ConcurrentHashMap<>(initialSize);
-
-        this.timeToLive = timeToLive * 1000;
+        this(initialSize, timeToLive * 1000, 0L, null);
     }
 
     /**
      * Create an instance of Cache with very lazy eviction policy.<br>
-     * Evictor thread would periodically evict expired items.<br>
+     * Shared evictor thread would evict expired items when they are due.<br>
      *
      * @param initialSize      initial size of cache
      * @param timeToLive       time to live (in seconds, 0 = no eviction)
-     * @param useActiveEvictor true: create an evictor thread
+     * @param useActiveEvictor true: use shared evictor thread
      */
     @SuppressWarnings("SameParameterValue")
     public Cache(int initialSize, long timeToLive, boolean useActiveEvictor) {
         this(initialSize, timeToLive);
 
-        if (useActiveEvictor) {
-            evictor = new CacheEvictor(cache, timeToLive);
-            evictor.start();
+        activeEviction = useActiveEvictor;
+    }
+
+    /**
+     * Create an instance of Cache bounded by number of items.<br>
+     * Least valuable items are evicted when maximumSize is exceeded.<br>
+     *
+     * @param initialSize      initial size of cache
+     * @param timeToLive       time to live (in seconds, 0 = no eviction)
+     * @param useActiveEvictor true: use shared evictor thread
+     * @param maximumSize      maximum number of items (0 = unbounded)
+     */
+    public Cache(int initialSize, long timeToLive, boolean useActiveEvictor, long maximumSize) {
+        this(initialSize, timeToLive, useActiveEvictor, maximumSize, null);
+    }
+
+    /**
+     * Create an instance of Cache bounded by total weight of elements.<br>
+     * Least valuable items are evicted when maximumWeight is exceeded.<br>
+     *
+     * @param initialSize      initial size of cache
+     * @param timeToLive       time to live (in seconds, 0 = no eviction)
+     * @param useActiveEvictor true: use shared evictor thread
+     * @param maximumWeight    maximum total weight of elements (0 = unbounded)
+     * @param weigher          weight of an element (0 or positive, null = 1 for each)
+     */
+    public Cache(int initialSize, long timeToLive, boolean useActiveEvictor, long maximumWeight,
+                 ToLongFunction<? super T> weigher) {
+        this(initialSize, timeToLive * 1000, maximumWeight, weigher);
+
+        activeEviction = useActiveEvictor;
+    }
+
+    /**
+     * Create an instance of Cache bounded by number of items, with finer time to live.<br>
+     *
+     * @param initialSize      initial size of cache
+     * @param timeToLive       time to live (0 = no eviction)
+     * @param unit             time unit of timeToLive
+     * @param useActiveEvictor true: use shared evictor thread
+     * @param maximumSize      maximum number of items (0 = unbounded)
+     */
+    public Cache(int initialSize, long timeToLive, TimeUnit unit, boolean useActiveEvictor, long maximumSize) {
+        this(initialSize, unit.toMillis(timeToLive), maximumSize, null);
+
+        activeEviction = useActiveEvictor;
+    }
+
+    /**
+     * @param initialSize initial size of cache
+     * @param timeToLive  time to live (in milli-seconds, 0 = no eviction)
+     * @param maximum     maximum total weight (0 = unbounded)
+     * @param weigher     weight of an element (null = 1 for each)
+     */
+    private Cache(int initialSize, long timeToLive, long maximum, ToLongFunction<? super T> weigher) {
+        super();
+
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must be 0 or positive - " + timeToLive);
+        }
+        if (maximum < 0) {
+            throw new IllegalArgumentException("maximum must be 0 or positive - " + maximum);
         }
+
+        cache = new ConcurrentHashMap<>(initialSize);
+
+        this.timeToLive = timeToLive;
+        this.weigher = weigher;
+        policy = maximum > 0 ? new BoundedPolicy<>(cache, maximum, this::evicted) : null;
     }
 
     @SuppressWarnings("WeakerAccess")
     protected static boolean isAlive(CacheItem<?> item, long timeToLive) {
         boolean result = false;
 
-        if (item != null && item.timestamp >= (System.currentTimeMillis() - timeToLive)) {
+        if (item != null && (timeToLive <= 0 || item.timestamp >= (System.currentTimeMillis() - timeToLive))) {
             result = true;
         }
 
@@ -105,17 +196,39 @@ public class Cache<T> {
      * @return cache element
      */
     public T get(String key) {
-        T result = null;
+        CacheItem<T> item = getItem(key);
+
+        return item == null ? null : item.element;
+    }
+
+    /**
+     * get an alive item (counts a hit or a miss)
+     *
+     * @param key key of element
+     * @return alive item or null
+     */
+    CacheItem<T> getItem(String key) {
+        CacheItem<T> result = null;
 
         if (!Validator.isEmpty(key)) {
             CacheItem<T> item = cache.get(key);
             if (item != null) {
                 if (isAlive(item)) {
-                    result = item.element;
-                } else {
-                    cache.remove(key);
+                    result = item;
+                    if (expiry == Expiry.AFTER_ACCESS && item.timeToLive > 0) {
+                        item.timestamp = System.currentTimeMillis();
+                        item.expiresAt = item.timestamp + item.timeToLive;
+                    }
+                    if (policy != null) {
+                        policy.onRead(item);
+                    }
+                } else if (cache.remove(key, item)) {
+                    removed(item);
+                    countEviction();
                 }
             }
+
+            countAccess(result != null && result.element != null);
         }
 
         return result;
@@ -130,24 +243,54 @@ public class Cache<T> {
      */
     @SuppressWarnings("UnusedReturnValue")
     public T put(String key, T element) {
+        return put(key, element, timeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * put an element with its own time to live
+     *
+     * @param key        key of element
+     * @param element    element to put
+     * @param timeToLive time to live of element (0 = no eviction)
+     * @param unit       time unit of timeToLive
+     * @return previous element
+     */
+    public T put(String key, T element, long timeToLive, TimeUnit unit) {
         T result = null;
 
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must be 0 or positive - " + timeToLive);
+        }
+
         if (!Validator.isEmpty(key)) {
-            CacheItem<T> item;
-            synchronized (cache) {
-                item = cache.get(key);
-
-                if (item == null) {
-                    item = new CacheItem<>();
-                    item.element = element;
-                    cache.put(key, item);
-                } else if (isAlive(item)) {
-                    result = item.element;
-                    item.element = element;
+            CacheItem<T> item = new CacheItem<>();
+            item.key = key;
+            item.element = element;
+            item.owner = this;
+            item.timestamp = System.currentTimeMillis();
+            item.timeToLive = unit.toMillis(timeToLive);
+            item.expiresAt = item.timeToLive > 0 ? item.timestamp + item.timeToLive : 0L;
+            if (policy != null && weigher != null) {
+                item.weight = weigher.applyAsLong(element);
+                if (item.weight < 0) {
+                    throw new IllegalArgumentException("weight must be 0 or positive - " + item.weight);
                 }
             }
 
-            item.timestamp = System.currentTimeMillis();
+            CacheItem<T> previous = cache.put(key, item);
+            if (isAlive(previous)) {
+                result = previous.element;
+            }
+            if (previous != null) {
+                cancelExpiry(previous);
+            }
+
+            if (policy != null) {
+                policy.onWrite(item, previous);
+            }
+            if (activeEviction && item.timeToLive > 0) {
+                item.expiry = CacheExpirer.getInstance().schedule(item, item.timeToLive);
+            }
         }
 
         return result;
@@ -163,10 +306,8 @@ public class Cache<T> {
         T result = null;
 
         if (!Validator.isEmpty(key)) {
-            CacheItem<T> item;
-            synchronized (cache) {
-                item = cache.remove(key);
-            }
+            CacheItem<T> item = cache.remove(key);
+            removed(item);
 
             if (isAlive(item)) {
                 result = item.element;
@@ -182,7 +323,155 @@ public class Cache<T> {
      */
     @SuppressWarnings("WeakerAccess")
     protected boolean isAlive(CacheItem<T> item) {
-        return isAlive(item, timeToLive);
+        boolean result = false;
+
+        if (item != null) {
+            long deadline = item.expiresAt;
+            result = deadline == 0L || deadline > System.currentTimeMillis();
+        }
+
+        return result;
+    }
+
+    /**
+     * Evicts an item if it's due, or reschedules it if it's been accessed since.<br>
+     * Called by {@link CacheExpirer}.<br>
+     *
+     * @param item item of which deadline came up
+     */
+    void expire(CacheItem<T> item) {
+        // removed or replaced
+        if (cache.get(item.key) != item) {
+            return;
+        }
+
+        long remaining = item.expiresAt - System.currentTimeMillis();
+        if (remaining > 0) {
+            item.expiry = CacheExpirer.getInstance().schedule(item, remaining);
+            if (cache.get(item.key) != item) {
+                // removed while rescheduling
+                cancelExpiry(item);
+            }
+        } else if (cache.remove(item.key, item)) {
+            removed(item);
+            countEviction();
+        }
+    }
+
+    /**
+     * notifies size bound and expirer of a removed item
+     *
+     * @param item removed item (nullable)
+     */
+    private void removed(CacheItem<T> item) {
+        if (item != null) {
+            cancelExpiry(item);
+
+            if (policy != null) {
+                policy.onRemove(item);
+            }
+        }
+    }
+
+    /**
+     * called with items evicted by size bound
+     *
+     * @param item evicted item
+     */
+    private void evicted(CacheItem<T> item) {
+        cancelExpiry(item);
+        countEviction();
+    }
+
+    private static void cancelExpiry(CacheItem<?> item) {
+        TimingWheel.Timeout<CacheItem<?>> current = item.expiry;
+        if (current != null) {
+            current.cancel();
+            item.expiry = null;
+        }
+    }
+
+    /**
+     * Sets what resets time to live of items.<br>
+     * Applies to items put or read afterwards.<br>
+     *
+     * @param expiry expiry policy
+     */
+    public void setExpiry(Expiry expiry) {
+        if (expiry == null) {
+            throw new NullPointerException("expiry is null");
+        }
+
+        this.expiry = expiry;
+    }
+
+    /**
+     * @return what resets time to live of items
+     */
+    public Expiry getExpiry() {
+        return expiry;
+    }
+
+    /**
+     * @return number of items (including expired but not evicted yet)
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * @return total weight of items (number of items if not bounded by weight)
+     */
+    public long weightedSize() {
+        return policy == null || weigher == null ? cache.size() : policy.weightedSize();
+    }
+
+    /**
+     * @return maximum number of items or total weight (0 = unbounded)
+     */
+    public long getMaximum() {
+        return policy == null ? 0L : policy.getMaximum();
+    }
+
+    /**
+     * Performs pending maintenance (size bound) right now.<br>
+     * Normally done on the fly by accessing threads.<br>
+     */
+    public void cleanUp() {
+        if (policy != null) {
+            policy.cleanUp();
+        }
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        metrics = new CacheMetrics(registry, prefix, cache::size);
+    }
+
+    /**
+     * counts a hit or a miss (metrics)
+     *
+     * @param hit true: hit, false: miss
+     */
+    private void countAccess(boolean hit) {
+        CacheMetrics current = metrics;
+        if (current != null) {
+            if (hit) {
+                current.hit();
+            } else {
+                current.miss();
+            }
+        }
+    }
+
+    /**
+     * counts an eviction (metrics)
+     */
+    private void countEviction() {
+        CacheMetrics current = metrics;
+        if (current != null) {
+            current.evicted();
+        }
     }
 
     /**
@@ -192,53 +481,40 @@ public class Cache<T> {
         return (int) (timeToLive / 1000);
     }
 
+    /**
+     * @return time to live (msec, 0 = no eviction)
+     */
+    long getTimeToLiveMillis() {
+        return timeToLive;
+    }
+
     /**
      * Dispose all resources
      */
     public void dispose() {
+        for (CacheItem<T> item : cache.values()) {
+            cancelExpiry(item);
+        }
         cache.clear();
-
-        evictor.terminate();
+        if (policy != null) {
+            policy.clear();
+        }
     }
 
     /**
-     * Evictor thread for {@link Cache}
+     * What resets time to live of items
      *
      * @author lempel@gmail.com
-     * @since 2014. 3. 20.
+     * @since 2026. 10. 17.
      */
-    private class CacheEvictor extends TerminatableThread {
-        private final Map<String, CacheItem<T>> cache;
-        private final long timeToLive;
-        private final long interval;
-
+    public enum Expiry {
         /**
-         * @param cache cache to handle
-         * @param timeToLive life span in seconds
+         * expires timeToLive after put
          */
-        public CacheEvictor(Map<String, CacheItem<T>> cache, long timeToLive) {
-            this.cache = cache;
-            this.timeToLive = timeToLive;
-            interval = timeToLive / 3;
-        }
-
-        @Override
-        public void run() {
-            while (running && !terminated) {
-                try {
-                    sleep(interval);
-
-                    Set<String> keys = cache.keySet();
-                    for (String key : keys) {
-                        CacheItem<T> item = cache.get(key);
-
-                        if (!Cache.isAlive(item, timeToLive)) {
-                            cache.remove(key);
-                        }
-                    }
-                } catch (InterruptedException ignored) {
-                }
-            }
-        }
+        AFTER_WRITE,
+        /**
+         * expires timeToLive after last get or put
+         */
+        AFTER_ACCESS
     }
 }
\ No newline at end of file
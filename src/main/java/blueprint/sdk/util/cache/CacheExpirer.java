@@ -0,0 +1,121 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+import blueprint.sdk.core.concurrent.TimingWheel;
+import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires items of all {@link Cache}s with active eviction.<br>
+ * A single thread and a timing wheel, so that only due items are visited.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class CacheExpirer extends TerminatableThread {
+    /**
+     * resolution of expiry (msec)
+     */
+    static final long TICK = 50L;
+    /**
+     * number of wheel buckets (about 51 seconds per revolution)
+     */
+    private static final int BUCKETS = 1024;
+
+    private static final Logger L = LoggerFactory.getLogger(CacheExpirer.class);
+
+    private static volatile CacheExpirer instance = null;
+
+    private final TimingWheel<CacheItem<?>> wheel = new TimingWheel<>(TICK, TimeUnit.MILLISECONDS, BUCKETS);
+
+    private CacheExpirer() {
+        super();
+
+        setName(CacheExpirer.class.getName());
+        setDaemon(true);
+    }
+
+    /**
+     * Locks only to (re)create the thread, so that writes of caches don't contend here.
+     *
+     * @return shared instance (started)
+     */
+    static CacheExpirer getInstance() {
+        CacheExpirer result = instance;
+
+        if (isDead(result)) {
+            synchronized (CacheExpirer.class) {
+                result = instance;
+                if (isDead(result)) {
+                    result = new CacheExpirer();
+                    result.start();
+                    instance = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isDead(CacheExpirer expirer) {
+        return expirer == null || expirer.isTerminated() || !expirer.isAlive();
+    }
+
+    /**
+     * schedules expiry of an item
+     *
+     * @param item  item to expire
+     * @param delay delay (msec)
+     * @return handle to cancel
+     */
+    TimingWheel.Timeout<CacheItem<?>> schedule(CacheItem<?> item, long delay) {
+        return wheel.schedule(item, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return number of scheduled items
+     */
+    int size() {
+        return wheel.size();
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        while (running) {
+            try {
+                sleep(TICK);
+            } catch (InterruptedException ignored) {
+            }
+
+            wheel.expire(CacheExpirer::expire);
+        }
+
+        wheel.clear(null);
+        terminated = true;
+    }
+
+    private static <T> void expire(CacheItem<T> item) {
+        try {
+            item.owner.expire(item);
+        } catch (RuntimeException e) {
+            L.error("Can't expire an item - " + item.key, e);
+        }
+    }
+}
@@ -13,6 +13,8 @@
 
 package blueprint.sdk.util.cache;
 
+import blueprint.sdk.core.concurrent.TimingWheel;
+
 import java.io.Serializable;
 
 /**
@@ -33,4 +35,47 @@ public class CacheItem<T> implements Serializable {
      * last timestamp
      */
     public long timestamp;
+
+    // bookkeeping of expiry
+
+    /**
+     * time to live of this item (msec, 0 = never expires)
+     */
+    transient long timeToLive;
+    /**
+     * deadline (System.currentTimeMillis(), 0 = never expires)
+     */
+    transient volatile long expiresAt;
+    /**
+     * cache which holds this item
+     */
+    transient Cache<T> owner;
+    /**
+     * scheduled expiry (null = not scheduled)
+     */
+    transient volatile TimingWheel.Timeout<CacheItem<?>> expiry;
+
+    // bookkeeping of BoundedPolicy
+
+    /**
+     * key of item
+     */
+    transient String key;
+    /**
+     * weight of element (1 if no weigher)
+     */
+    transient long weight = 1L;
+    /**
+     * neighbours in access order
+     */
+    transient CacheItem<T> prev;
+    transient CacheItem<T> next;
+    /**
+     * segment which holds this item (0 = none)
+     */
+    transient byte queue;
+    /**
+     * true if removed from policy (never comes back)
+     */
+    transient boolean retired;
 }
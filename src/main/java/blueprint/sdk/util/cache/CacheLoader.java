@@ -0,0 +1,30 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+/**
+ * Loads an element of {@link LoadingCache} on a miss
+ *
+ * @param <T> element type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+@FunctionalInterface
+public interface CacheLoader<T> {
+    /**
+     * @param key key of element
+     * @return loaded element (null = not cached)
+     * @throws Exception failed to load
+     */
+    T load(String key) throws Exception;
+}
@@ -0,0 +1,504 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.util.cache;
+
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Content addressed store of byte arrays.<br>
+ * <br>
+ * Contents are identified by SHA-256 digest, so identical contents share one array
+ * no matter how many {@link Content} handles refer to them.
+ * Contents nobody refers to are garbage collected.<br>
+ * Contents not accessed for a while (cold) are compressed with Deflater(BEST_SPEED) and the original array is dropped.
+ * Next access decompresses them (lazily) and keeps both, so that cooling down again costs nothing.
+ * Contents which don't shrink by 1/8 at least are left as is.<br>
+ * <br>
+ * Given arrays are copied on store, but arrays returned by {@link Content#get()} are shared,
+ * so they must not be modified.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class ContentStore implements Instrumented {
+    /**
+     * smaller contents are not compressed
+     */
+    private static final int MIN_COMPRESS = 256;
+
+    /**
+     * contents are cold after this (msec)
+     */
+    private final long coldAfter;
+
+    /**
+     * contents by digest
+     */
+    private final Map<ByteBuffer, BlobRef> blobs = new ConcurrentHashMap<>();
+    /**
+     * keeps references to handles reachable
+     */
+    private final Set<HandleRef> handles = ConcurrentHashMap.newKeySet();
+    /**
+     * collected blobs and handles
+     */
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(ContentStore::newDigest);
+
+    /**
+     * total bytes of all handles
+     */
+    private final AtomicLong logicalBytes = new AtomicLong();
+    /**
+     * bytes of stored arrays (original and compressed)
+     */
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong dedupHits = new AtomicLong();
+    private final AtomicLong compressions = new AtomicLong();
+    private final AtomicLong decompressions = new AtomicLong();
+
+    private final ReentrantLock cleanUpLock = new ReentrantLock();
+    /**
+     * last time of cooling (written under cleanUpLock)
+     */
+    private volatile long lastCooling = System.currentTimeMillis();
+
+    /**
+     * Constructor
+     *
+     * @param coldAfter contents not accessed within this are compressed
+     * @param unit      time unit of coldAfter
+     */
+    public ContentStore(long coldAfter, TimeUnit unit) {
+        if (coldAfter <= 0) {
+            throw new IllegalArgumentException("coldAfter must be positive - " + coldAfter);
+        }
+        if (unit == null) {
+            throw new NullPointerException("unit is null");
+        }
+
+        this.coldAfter = unit.toMillis(coldAfter);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE has SHA-256
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Stores contents, or finds identical contents already stored
+     *
+     * @param contents contents to store (copied if not stored yet)
+     * @return a handle to stored contents
+     */
+    public Content intern(byte[] contents) {
+        if (contents == null) {
+            throw new NullPointerException("contents is null");
+        }
+
+        ByteBuffer key = ByteBuffer.wrap(digests.get().digest(contents));
+
+        Blob blob = null;
+        while (blob == null) {
+            BlobRef ref = blobs.get(key);
+            blob = ref == null ? null : ref.get();
+
+            if (blob != null) {
+                dedupHits.incrementAndGet();
+            } else {
+                // caller may reuse given array
+                Blob created = new Blob(contents.clone());
+                BlobRef newRef = new BlobRef(created, key, collected);
+                created.ref = newRef;
+
+                boolean placed = ref == null ? blobs.putIfAbsent(key, newRef) == null : blobs.replace(key, ref, newRef);
+                if (placed) {
+                    storedBytes.addAndGet(contents.length);
+                    blob = created;
+                } else {
+                    // lost the race, never accounted
+                    newRef.clear();
+                }
+            }
+        }
+
+        Content result = new Content(blob);
+        handles.add(new HandleRef(result, blob.length, collected));
+        logicalBytes.addAndGet(blob.length);
+
+        maintain();
+
+        return result;
+    }
+
+    /**
+     * Releases collected contents and compresses cold contents
+     */
+    public void cleanUp() {
+        cleanUpLock.lock();
+        try {
+            expunge();
+            cool(System.currentTimeMillis());
+        } finally {
+            cleanUpLock.unlock();
+        }
+    }
+
+    /**
+     * amortized clean up on intern and access (skipped if someone else is cleaning up)
+     */
+    private void maintain() {
+        if (cleanUpLock.tryLock()) {
+            try {
+                expunge();
+
+                long now = System.currentTimeMillis();
+                if (now - lastCooling >= coldAfter / 2) {
+                    cool(now);
+                }
+            } finally {
+                cleanUpLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * releases collected blobs and handles (guarded by cleanUpLock)
+     */
+    private void expunge() {
+        Reference<?> ref;
+        while ((ref = collected.poll()) != null) {
+            if (ref instanceof BlobRef) {
+                BlobRef blobRef = (BlobRef) ref;
+                blobs.remove(blobRef.key, blobRef);
+                storedBytes.addAndGet(-blobRef.footprint);
+            } else {
+                HandleRef handleRef = (HandleRef) ref;
+                handles.remove(handleRef);
+                logicalBytes.addAndGet(-handleRef.length);
+            }
+        }
+    }
+
+    /**
+     * compresses cold blobs (guarded by cleanUpLock)
+     *
+     * @param now current time
+     */
+    private void cool(long now) {
+        lastCooling = now;
+
+        long threshold = now - coldAfter;
+        for (BlobRef ref : blobs.values()) {
+            Blob blob = ref.get();
+            if (blob != null && blob.lastAccess < threshold) {
+                blob.compress();
+            }
+        }
+    }
+
+    /**
+     * @return number of distinct contents
+     */
+    public int size() {
+        return blobs.size();
+    }
+
+    /**
+     * @return total bytes of all live handles (without dedup and compression)
+     */
+    public long getLogicalBytes() {
+        return logicalBytes.get();
+    }
+
+    /**
+     * @return bytes of stored arrays (original and compressed)
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    /**
+     * @return bytes saved by dedup and compression
+     */
+    public long getSavedBytes() {
+        return logicalBytes.get() - storedBytes.get();
+    }
+
+    /**
+     * @return number of interned contents which were already stored
+     */
+    public long getDedupHits() {
+        return dedupHits.get();
+    }
+
+    /**
+     * @return number of compressed contents
+     */
+    public long getCompressions() {
+        return compressions.get();
+    }
+
+    /**
+     * @return number of decompressed contents
+     */
+    public long getDecompressions() {
+        return decompressions.get();
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        registry.gauge(prefix + ".contents", this::size);
+        registry.gauge(prefix + ".logicalBytes", this::getLogicalBytes);
+        registry.gauge(prefix + ".storedBytes", this::getStoredBytes);
+        registry.gauge(prefix + ".savedBytes", this::getSavedBytes);
+        registry.gauge(prefix + ".dedupHits", this::getDedupHits);
+        registry.gauge(prefix + ".compressions", this::getCompressions);
+        registry.gauge(prefix + ".decompressions", this::getDecompressions);
+    }
+
+    /**
+     * @param contents contents to compress
+     * @return compressed contents
+     */
+    private static byte[] deflate(byte[] contents) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(contents);
+            deflater.finish();
+
+            byte[] result = new byte[contents.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                length += deflater.deflate(result, length, result.length - length);
+            }
+
+            return Arrays.copyOf(result, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param packed compressed contents
+     * @param length original length
+     * @return original contents
+     */
+    private static byte[] inflate(byte[] packed, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(packed);
+
+            byte[] result = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                int inflated = inflater.inflate(result, offset, length - offset);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += inflated;
+            }
+
+            if (offset != length) {
+                throw new IllegalStateException("corrupted contents - " + offset + " of " + length + " bytes");
+            }
+
+            return result;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("corrupted contents", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Handle to stored contents.<br>
+     * Stored contents are kept as long as any handle to them is reachable.<br>
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    public static final class Content {
+        private final Blob blob;
+
+        private Content(Blob blob) {
+            this.blob = blob;
+        }
+
+        /**
+         * @return contents (decompressed if needed, shared with other handles, must not be modified)
+         */
+        public byte[] get() {
+            return blob.get();
+        }
+
+        /**
+         * @return length of contents
+         */
+        public int length() {
+            return blob.length;
+        }
+
+        /**
+         * @return true if only compressed contents are kept at the moment
+         */
+        public boolean isCompressed() {
+            return blob.raw == null;
+        }
+    }
+
+    /**
+     * Stored contents
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private final class Blob {
+        final int length;
+        /**
+         * original contents (null = compressed only)
+         */
+        volatile byte[] raw;
+        /**
+         * compressed contents (guarded by this)
+         */
+        byte[] packed = null;
+        /**
+         * doesn't shrink enough (guarded by this)
+         */
+        boolean incompressible;
+        volatile long lastAccess = System.currentTimeMillis();
+        BlobRef ref;
+
+        Blob(byte[] contents) {
+            length = contents.length;
+            raw = contents;
+            incompressible = length < MIN_COMPRESS;
+        }
+
+        byte[] get() {
+            long now = System.currentTimeMillis();
+            lastAccess = now;
+            if (now - lastCooling >= coldAfter / 2) {
+                maintain();
+            }
+
+            byte[] result = raw;
+            if (result == null) {
+                synchronized (this) {
+                    result = raw;
+                    if (result == null) {
+                        result = inflate(packed, length);
+                        raw = result;
+                        resized(length);
+                        decompressions.incrementAndGet();
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        synchronized void compress() {
+            if (raw != null && !incompressible) {
+                if (packed == null) {
+                    byte[] compressed = deflate(raw);
+                    if (compressed.length > length - (length >> 3)) {
+                        incompressible = true;
+                    } else {
+                        packed = compressed;
+                        resized(packed.length);
+                    }
+                }
+
+                if (packed != null) {
+                    raw = null;
+                    resized(-length);
+                    compressions.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @param delta change of stored bytes
+         */
+        private void resized(long delta) {
+            ref.footprint += delta;
+            storedBytes.addAndGet(delta);
+        }
+    }
+
+    /**
+     * Weak reference to a blob, released from the index once collected
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class BlobRef extends WeakReference<Blob> {
+        final ByteBuffer key;
+        /**
+         * stored bytes of referent (updated under lock of referent)
+         */
+        volatile long footprint;
+
+        BlobRef(Blob referent, ByteBuffer key, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+
+            this.key = key;
+            footprint = referent.length;
+        }
+    }
+
+    /**
+     * Weak reference to a handle, for accounting of logical bytes
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class HandleRef extends WeakReference<Content> {
+        final int length;
+
+        HandleRef(Content referent, int length, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+
+            this.length = length;
+        }
+    }
+}
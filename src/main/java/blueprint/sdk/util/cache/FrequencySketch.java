@@ -0,0 +1,136 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+/**
+ * Count-Min sketch with 4-bit counters, for popularity estimation (TinyLFU).<br>
+ * Counters are halved periodically, so that old popularity fades.<br>
+ * <b>Not Thread Safe</b> (guarded by eviction lock of {@link BoundedPolicy})<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_LENGTH = 1 << 26;
+
+    /**
+     * 16 counters per long
+     */
+    private long[] table;
+    private int mask;
+    /**
+     * number of increments since last reset
+     */
+    private int samples;
+    /**
+     * counters are halved when samples reaches this
+     */
+    private int sampleSize;
+
+    /**
+     * @param capacity expected number of entries
+     */
+    FrequencySketch(long capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * grows table for given number of entries (counters are lost)
+     *
+     * @param capacity expected number of entries
+     */
+    void ensureCapacity(long capacity) {
+        int length = 16;
+        while (length < capacity && length < MAX_LENGTH) {
+            length <<= 1;
+        }
+
+        if (table == null || table.length < length) {
+            table = new long[length];
+            mask = length - 1;
+            sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * length);
+            samples = 0;
+        }
+    }
+
+    /**
+     * @param hash hash code of a key
+     * @return estimated frequency (0 ~ 15)
+     */
+    int frequency(int hash) {
+        int result = Integer.MAX_VALUE;
+
+        int start = (hash & 3) << 2;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = (start + i) << 2;
+            int count = (int) ((table[index] >>> offset) & 0xfL);
+            result = Math.min(result, count);
+        }
+
+        return result;
+    }
+
+    /**
+     * increases popularity of a key
+     *
+     * @param hash hash code of a key
+     */
+    void increment(int hash) {
+        boolean added = false;
+
+        int start = (hash & 3) << 2;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int offset = (start + i) << 2;
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+                table[index] += 1L << offset;
+                added = true;
+            }
+        }
+
+        if (added && ++samples >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * halves all counters
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        samples >>>= 1;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return ((int) value) & mask;
+    }
+
+    /**
+     * @param value hash code of a key
+     * @return spread hash code
+     */
+    static int spread(int value) {
+        int result = ((value >>> 16) ^ value) * 0x45d9f3b;
+        result = ((result >>> 16) ^ result) * 0x45d9f3b;
+        return (result >>> 16) ^ result;
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Cache} which loads missing elements by itself.<br>
+ * <br>
+ * Concurrent loads of a key are merged into one (single-flight),
+ * so that a missed hot key is loaded only once.<br>
+ * With refresh-ahead, an element is reloaded in background shortly before it expires,
+ * while callers keep getting current element.<br>
+ * <br>
+ * put/remove of a key drops result of an in-flight load, so that a load never overwrites newer element.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @param <T> element type
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class LoadingCache<T> extends Cache<T> {
+    private static final Logger L = LoggerFactory.getLogger(LoadingCache.class);
+
+    /**
+     * in-flight loads
+     */
+    private final Map<String, CompletableFuture<T>> loads = new ConcurrentHashMap<>();
+    /**
+     * reload elements expiring within this (msec, 0 = no refresh-ahead)
+     */
+    private final long refreshAhead;
+    /**
+     * runs asynchronous loads and refreshes
+     */
+    private final Executor executor;
+
+    /**
+     * Constructor (expired items are evicted by shared evictor thread, no refresh-ahead)
+     *
+     * @param timeToLive time to live (in seconds, 0 = no eviction)
+     */
+    public LoadingCache(long timeToLive) {
+        this(5, timeToLive, TimeUnit.SECONDS, 0L, 0L, null);
+    }
+
+    /**
+     * Constructor (expired items are evicted by shared evictor thread)
+     *
+     * @param initialSize  initial size of cache
+     * @param timeToLive   time to live (0 = no eviction)
+     * @param unit         time unit of timeToLive and refreshAhead
+     * @param maximumSize  maximum number of items (0 = unbounded)
+     * @param refreshAhead reload elements expiring within this (0 = no refresh-ahead)
+     * @param executor     runs asynchronous loads and refreshes (null = {@link ForkJoinPool#commonPool()})
+     */
+    public LoadingCache(int initialSize, long timeToLive, TimeUnit unit, long maximumSize, long refreshAhead,
+                        Executor executor) {
+        super(initialSize, timeToLive, unit, true, maximumSize);
+
+        if (refreshAhead < 0) {
+            throw new IllegalArgumentException("refreshAhead must be 0 or positive - " + refreshAhead);
+        }
+
+        this.refreshAhead = unit.toMillis(refreshAhead);
+        this.executor = executor == null ? ForkJoinPool.commonPool() : executor;
+    }
+
+    /**
+     * Gets an element, loads it on the calling thread if missing.<br>
+     * Waits for an in-flight load of same key instead of loading again.<br>
+     *
+     * @param key    key of element
+     * @param loader loads missing element
+     * @return element (null if loader returned null)
+     * @throws ExecutionException loader failed (cause is the exception thrown by loader)
+     */
+    public T get(String key, CacheLoader<T> loader) throws ExecutionException {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        T result;
+
+        CacheItem<T> item = getItem(key);
+        if (item != null && item.element != null) {
+            result = item.element;
+            refreshIfDue(key, item, loader);
+        } else {
+            CompletableFuture<T> load = new CompletableFuture<>();
+            CompletableFuture<T> existing = loads.putIfAbsent(key, load);
+            if (existing == null) {
+                load(key, loader, load);
+                existing = load;
+            }
+
+            try {
+                result = existing.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException("interrupted while waiting for a load - " + key, e);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets an element, loads it with executor if missing.
+     *
+     * @param key    key of element
+     * @param loader loads missing element
+     * @return future of element
+     */
+    public CompletableFuture<T> getAsync(String key, CacheLoader<T> loader) {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        CompletableFuture<T> result;
+
+        CacheItem<T> item = getItem(key);
+        if (item != null && item.element != null) {
+            result = CompletableFuture.completedFuture(item.element);
+            refreshIfDue(key, item, loader);
+        } else {
+            result = loadAsync(key, loader);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets elements, loads missing ones concurrently with executor.
+     *
+     * @param keys   keys of elements
+     * @param loader loads missing element
+     * @return elements in order of keys (keys of null elements are omitted)
+     * @throws ExecutionException loader failed (cause is the exception thrown by loader)
+     */
+    public Map<String, T> getAll(Collection<String> keys, CacheLoader<T> loader) throws ExecutionException {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (String key : keys) {
+            futures.put(key, getAsync(key, loader));
+        }
+
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<T>> entry : futures.entrySet()) {
+            T element;
+            try {
+                element = entry.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExecutionException("interrupted while waiting for a load - " + entry.getKey(), e);
+            }
+
+            if (element != null) {
+                result.put(entry.getKey(), element);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reloads an element with executor. Current element is kept until reloaded.
+     *
+     * @param key    key of element
+     * @param loader loads element
+     * @return future of reloaded element
+     */
+    public CompletableFuture<T> refresh(String key, CacheLoader<T> loader) {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        return loadAsync(key, loader);
+    }
+
+    @Override
+    public T put(String key, T element, long timeToLive, TimeUnit unit) {
+        // newer than any in-flight load
+        loads.remove(key);
+
+        return super.put(key, element, timeToLive, unit);
+    }
+
+    @Override
+    public T remove(String key) {
+        loads.remove(key);
+
+        return super.remove(key);
+    }
+
+    @Override
+    public void dispose() {
+        loads.clear();
+
+        super.dispose();
+    }
+
+    /**
+     * @return number of in-flight loads
+     */
+    public int getLoadCount() {
+        return loads.size();
+    }
+
+    /**
+     * @return reload elements expiring within this (msec, 0 = no refresh-ahead)
+     */
+    public long getRefreshAhead() {
+        return refreshAhead;
+    }
+
+    /**
+     * starts a load with executor, or joins an in-flight one
+     */
+    private CompletableFuture<T> loadAsync(String key, CacheLoader<T> loader) {
+        CompletableFuture<T> load = new CompletableFuture<>();
+        CompletableFuture<T> existing = loads.putIfAbsent(key, load);
+
+        if (existing == null) {
+            try {
+                executor.execute(() -> load(key, loader, load));
+            } catch (RuntimeException e) {
+                loads.remove(key, load);
+                load.completeExceptionally(e);
+            }
+            existing = load;
+        }
+
+        return existing;
+    }
+
+    /**
+     * starts background reload if item expires within refreshAhead
+     */
+    private void refreshIfDue(String key, CacheItem<T> item, CacheLoader<T> loader) {
+        long deadline = item.expiresAt;
+
+        if (refreshAhead > 0 && deadline != 0L && deadline - System.currentTimeMillis() <= refreshAhead
+                && !loads.containsKey(key)) {
+            loadAsync(key, loader).whenComplete((element, e) -> {
+                if (e != null) {
+                    L.warn("Can't refresh an element - " + key, e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+        }
+    }
+
+    /**
+     * runs loader and stores result, unless key is written meanwhile
+     *
+     * @param key    key of element
+     * @param loader loads element
+     * @param load   registered in-flight load
+     */
+    private void load(String key, CacheLoader<T> loader, CompletableFuture<T> load) {
+        try {
+            T element = loader.load(key);
+
+            if (element != null) {
+                // checked and stored atomically. put/remove unregister the load before writing.
+                loads.computeIfPresent(key, (k, current) -> {
+                    if (current == load) {
+                        super.put(key, element, getTimeToLiveMillis(), TimeUnit.MILLISECONDS);
+                    }
+                    return current;
+                });
+            }
+            loads.remove(key, load);
+            load.complete(element);
+        } catch (Exception e) {
+            loads.remove(key, load);
+            load.completeExceptionally(e);
+        } catch (Error e) {
+            loads.remove(key, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,1004 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.cache;
+
+import blueprint.sdk.util.Validator;
+import blueprint.sdk.util.metrics.CacheMetrics;
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Byte array cache which keeps contents outside of Java heap.<br>
+ * <br>
+ * Memory is allocated as direct ByteBuffer pages (slabs) up to given capacity.
+ * Each page is carved into chunks of one size class (64 bytes * 2^n),
+ * and each entry (header, key and value) occupies a chunk of smallest fitting class.<br>
+ * When capacity is reached, entries of same class are evicted by CLOCK (second chance).
+ * If a class has no page at all, a page is taken from the class with most pages.<br>
+ * Index is an open addressing table of longs (hash and location), no object per entry.<br>
+ * <br>
+ * Entries larger than page size are not cached.<br>
+ * {@link OffHeapCache#get(String)} returns a read-only view of cached bytes without copying.
+ * A view is valid until its entry is replaced, removed or evicted.
+ * Use {@link OffHeapCache#getBytes(String)} for a copy.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class OffHeapCache implements Instrumented {
+    /**
+     * default size of a page (1MB)
+     */
+    public static final int DEFAULT_PAGE_SIZE = 1 << 20;
+
+    /**
+     * smallest chunk size
+     */
+    private static final int MIN_CHUNK = 64;
+    /**
+     * entry header: expiresAt(long), key length(int), value length(int)
+     */
+    private static final int HEADER = 16;
+    /**
+     * maximum number of segments (locks)
+     */
+    private static final int MAX_SEGMENTS = 16;
+    /**
+     * bits of chunk id in a location (the rest is class index)
+     */
+    private static final int CHUNK_BITS = 27;
+    private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+    /**
+     * maximum bytes of pages
+     */
+    private final long capacity;
+    private final int pageSize;
+    private final int maxPages;
+    /**
+     * number of allocated pages
+     */
+    private final AtomicInteger pages = new AtomicInteger();
+    /**
+     * bytes of stored entries (including headers)
+     */
+    private final AtomicLong used = new AtomicLong();
+    /**
+     * time to live (msec, 0 = no expiry)
+     */
+    private final long timeToLive;
+
+    private final Segment[] segments;
+    /**
+     * in-flight loads
+     */
+    private final Map<String, CompletableFuture<ByteBuffer>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * null until {@link OffHeapCache#registerMetrics(MetricRegistry, String)}
+     */
+    private volatile CacheMetrics metrics = null;
+
+    /**
+     * Constructor (no expiry, default page size)
+     *
+     * @param capacity maximum bytes of direct memory
+     */
+    public OffHeapCache(long capacity) {
+        this(capacity, DEFAULT_PAGE_SIZE, 0L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity   maximum bytes of direct memory
+     * @param pageSize   size of a page, also maximum size of an entry (rounded up to power of 2)
+     * @param timeToLive time to live (0 = no expiry)
+     * @param unit       time unit of timeToLive
+     */
+    public OffHeapCache(long capacity, int pageSize, long timeToLive, TimeUnit unit) {
+        if (pageSize < MIN_CHUNK || pageSize > (1 << 30)) {
+            throw new IllegalArgumentException("pageSize must be between " + MIN_CHUNK + " and 2^30 - " + pageSize);
+        }
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException("timeToLive must be 0 or positive - " + timeToLive);
+        }
+
+        int size = MIN_CHUNK;
+        while (size < pageSize) {
+            size <<= 1;
+        }
+        this.pageSize = size;
+
+        if (capacity < this.pageSize) {
+            throw new IllegalArgumentException("capacity must be at least a page - " + capacity);
+        }
+
+        this.capacity = capacity;
+        maxPages = (int) Math.min(Integer.MAX_VALUE, capacity / this.pageSize);
+        this.timeToLive = unit.toMillis(timeToLive);
+
+        // a few pages for each segment at least
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 8 <= maxPages) {
+            count <<= 1;
+        }
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * put an entry (with default time to live)
+     *
+     * @param key   key of entry
+     * @param value value to copy
+     * @return false if not cached (too large or no room, previous value is removed anyway)
+     */
+    public boolean put(String key, byte[] value) {
+        return put(key, ByteBuffer.wrap(value), timeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * put an entry
+     *
+     * @param key        key of entry
+     * @param value      value to copy (from position to limit, position is not changed)
+     * @param timeToLive time to live (0 = no expiry)
+     * @param unit       time unit of timeToLive
+     * @return false if not cached (too large or no room, previous value is removed anyway)
+     */
+    public boolean put(String key, ByteBuffer value, long timeToLive, TimeUnit unit) {
+        if (Validator.isEmpty(key)) {
+            throw new NullPointerException("key is null");
+        }
+        if (value == null) {
+            throw new NullPointerException("value is null");
+        }
+
+        // newer than any in-flight load
+        loads.remove(key);
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long ttl = unit.toMillis(timeToLive);
+        long expiresAt = ttl > 0 ? System.currentTimeMillis() + ttl : 0L;
+        int hash = FrequencySketch.spread(key.hashCode());
+
+        return segmentOf(hash).put(hash, keyBytes, value, expiresAt);
+    }
+
+    /**
+     * get an entry without copying
+     *
+     * @param key key of entry
+     * @return read-only view of value or null
+     */
+    public ByteBuffer get(String key) {
+        ByteBuffer result = null;
+
+        if (!Validator.isEmpty(key)) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int hash = FrequencySketch.spread(key.hashCode());
+
+            result = segmentOf(hash).get(hash, keyBytes, false);
+            countAccess(result != null);
+        }
+
+        return result;
+    }
+
+    /**
+     * get a copy of an entry
+     *
+     * @param key key of entry
+     * @return copy of value or null
+     */
+    public byte[] getBytes(String key) {
+        byte[] result = null;
+
+        if (!Validator.isEmpty(key)) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int hash = FrequencySketch.spread(key.hashCode());
+
+            ByteBuffer copy = segmentOf(hash).get(hash, keyBytes, true);
+            if (copy != null) {
+                result = copy.array();
+            }
+            countAccess(result != null);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets an entry, loads it on the calling thread if missing.<br>
+     * Concurrent loads of a key are merged into one.<br>
+     *
+     * @param key    key of entry
+     * @param loader loads missing value
+     * @return read-only view of value (on heap if not cached), null if loader returned null
+     * @throws ExecutionException loader failed (cause is the exception thrown by loader)
+     */
+    public ByteBuffer get(String key, CacheLoader<byte[]> loader) throws ExecutionException {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        ByteBuffer result = get(key);
+        if (result == null) {
+            result = load(key, loader);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets a copy of an entry, loads it on the calling thread if missing.<br>
+     * Concurrent loads of a key are merged into one.<br>
+     *
+     * @param key    key of entry
+     * @param loader loads missing value
+     * @return copy of value, null if loader returned null
+     * @throws ExecutionException loader failed (cause is the exception thrown by loader)
+     */
+    public byte[] getBytes(String key, CacheLoader<byte[]> loader) throws ExecutionException {
+        if (loader == null) {
+            throw new NullPointerException("loader is null");
+        }
+
+        byte[] result = getBytes(key);
+        if (result == null) {
+            ByteBuffer loaded = load(key, loader);
+            if (loaded != null) {
+                result = new byte[loaded.remaining()];
+                loaded.get(result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * loads a missing entry on the calling thread, or waits for an in-flight load
+     *
+     * @param key    key of entry
+     * @param loader loads missing value
+     * @return read-only view of loaded value (on heap), null if loader returned null
+     * @throws ExecutionException loader failed (cause is the exception thrown by loader)
+     */
+    private ByteBuffer load(String key, CacheLoader<byte[]> loader) throws ExecutionException {
+        ByteBuffer result;
+
+        CompletableFuture<ByteBuffer> load = new CompletableFuture<>();
+        CompletableFuture<ByteBuffer> existing = loads.putIfAbsent(key, load);
+        if (existing == null) {
+            try {
+                byte[] value = loader.load(key);
+                if (value != null) {
+                    // checked and stored atomically. put/remove unregister the load before writing.
+                    loads.computeIfPresent(key, (k, current) -> {
+                        if (current == load) {
+                            store(key, value);
+                        }
+                        return current;
+                    });
+                    load.complete(ByteBuffer.wrap(value).asReadOnlyBuffer());
+                } else {
+                    load.complete(null);
+                }
+            } catch (Exception e) {
+                load.completeExceptionally(e);
+            } catch (Error e) {
+                // waiting threads must not hang
+                load.completeExceptionally(e);
+                throw e;
+            } finally {
+                loads.remove(key, load);
+            }
+            existing = load;
+        }
+
+        try {
+            result = existing.get();
+            if (result != null) {
+                // each caller gets its own position and limit
+                result = result.duplicate();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException("interrupted while waiting for a load - " + key, e);
+        }
+
+        return result;
+    }
+
+    /**
+     * stores a loaded value without dropping in-flight load
+     */
+    private void store(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : 0L;
+        int hash = FrequencySketch.spread(key.hashCode());
+
+        segmentOf(hash).put(hash, keyBytes, ByteBuffer.wrap(value), expiresAt);
+    }
+
+    /**
+     * remove an entry
+     *
+     * @param key key of entry
+     * @return true if removed
+     */
+    public boolean remove(String key) {
+        boolean result = false;
+
+        if (!Validator.isEmpty(key)) {
+            // newer than any in-flight load
+            loads.remove(key);
+
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            int hash = FrequencySketch.spread(key.hashCode());
+
+            result = segmentOf(hash).remove(hash, keyBytes, false);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return number of entries (including expired but not evicted yet)
+     */
+    public int size() {
+        int result = 0;
+
+        for (Segment segment : segments) {
+            result += segment.count;
+        }
+
+        return result;
+    }
+
+    /**
+     * @return bytes of stored entries (including headers, excluding chunk slack)
+     */
+    public long getUsed() {
+        return used.get();
+    }
+
+    /**
+     * @return bytes of allocated pages
+     */
+    public long getAllocated() {
+        return (long) pages.get() * pageSize;
+    }
+
+    /**
+     * @return maximum bytes of direct memory
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return size of a page (maximum size of an entry)
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * removes all entries and releases all pages
+     */
+    public void clear() {
+        loads.clear();
+
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Dispose all resources
+     */
+    public void dispose() {
+        clear();
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        metrics = new CacheMetrics(registry, prefix, this::size);
+    }
+
+    private void countAccess(boolean hit) {
+        CacheMetrics current = metrics;
+        if (current != null) {
+            if (hit) {
+                current.hit();
+            } else {
+                current.miss();
+            }
+        }
+    }
+
+    private void countEviction() {
+        CacheMetrics current = metrics;
+        if (current != null) {
+            current.evicted();
+        }
+    }
+
+    private Segment segmentOf(int hash) {
+        // upper bits, lower bits are used by index
+        return segments[(hash >>> 24) & (segments.length - 1)];
+    }
+
+    /**
+     * reserves a page from capacity
+     *
+     * @return false if capacity is reached
+     */
+    private boolean reservePage() {
+        int current;
+        do {
+            current = pages.get();
+            if (current >= maxPages) {
+                return false;
+            }
+        } while (!pages.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private static boolean isExpired(long expiresAt, long now) {
+        return expiresAt != 0L && expiresAt <= now;
+    }
+
+    /**
+     * A part of cache with its own lock, index and pages
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private final class Segment {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * index: hash(upper 32 bits) and location + 1(lower 32 bits), 0 = empty
+         */
+        private long[] table = new long[16];
+        /**
+         * number of entries
+         */
+        volatile int count = 0;
+
+        private SlabClass[] classes = newClasses();
+
+        private SlabClass[] newClasses() {
+            int length = Integer.numberOfTrailingZeros(pageSize / MIN_CHUNK) + 1;
+
+            SlabClass[] result = new SlabClass[length];
+            for (int i = 0; i < length; i++) {
+                result[i] = new SlabClass(MIN_CHUNK << i, pageSize);
+            }
+
+            return result;
+        }
+
+        boolean put(int hash, byte[] key, ByteBuffer value, long expiresAt) {
+            int total = HEADER + key.length + value.remaining();
+            boolean result = false;
+
+            lock.writeLock().lock();
+            try {
+                // older value is removed even if newer one is rejected
+                remove(hash, key, false);
+
+                int index = total > pageSize ? -1 : classOf(total);
+                int chunk = index < 0 ? -1 : allocate(index);
+                if (chunk >= 0) {
+                    SlabClass slab = classes[index];
+                    ByteBuffer page = slab.pageOf(chunk);
+                    int offset = slab.offsetOf(chunk);
+
+                    page.putLong(offset, expiresAt);
+                    page.putInt(offset + 8, key.length);
+                    page.putInt(offset + 12, value.remaining());
+
+                    ByteBuffer target = page.duplicate();
+                    target.position(offset + HEADER);
+                    target.put(key);
+                    target.put(value.duplicate());
+
+                    slab.states[chunk] = SlabClass.USED;
+                    insert(hash, (index << CHUNK_BITS | chunk) + 1);
+                    used.addAndGet(total);
+                    result = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            return result;
+        }
+
+        /**
+         * @param hash hash of key
+         * @param key  key bytes
+         * @param copy true: copies value into a heap buffer
+         * @return read-only view or copy of value, null if missing or expired
+         */
+        ByteBuffer get(int hash, byte[] key, boolean copy) {
+            ByteBuffer result = null;
+            boolean expired = false;
+
+            lock.readLock().lock();
+            try {
+                int slot = find(hash, key);
+                if (slot >= 0) {
+                    int location = location(table[slot]);
+                    SlabClass slab = classes[location >>> CHUNK_BITS];
+                    int chunk = location & CHUNK_MASK;
+                    ByteBuffer page = slab.pageOf(chunk);
+                    int offset = slab.offsetOf(chunk);
+
+                    if (isExpired(page.getLong(offset), System.currentTimeMillis())) {
+                        expired = true;
+                    } else {
+                        // benign race, only a hint for CLOCK
+                        slab.states[chunk] = SlabClass.REFERENCED;
+
+                        int start = offset + HEADER + page.getInt(offset + 8);
+                        ByteBuffer view = page.duplicate();
+                        view.limit(start + page.getInt(offset + 12));
+                        view.position(start);
+                        if (copy) {
+                            // copy under lock, so that the chunk is not reused meanwhile
+                            byte[] bytes = new byte[view.remaining()];
+                            view.get(bytes);
+                            result = ByteBuffer.wrap(bytes);
+                        } else {
+                            result = view.slice().asReadOnlyBuffer();
+                        }
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (expired) {
+                remove(hash, key, true);
+            }
+
+            return result;
+        }
+
+        /**
+         * @param hash        hash of key
+         * @param key         key bytes
+         * @param expiredOnly true: removes only if expired
+         * @return true if removed
+         */
+        boolean remove(int hash, byte[] key, boolean expiredOnly) {
+            boolean result = false;
+
+            lock.writeLock().lock();
+            try {
+                int slot = find(hash, key);
+                if (slot >= 0) {
+                    int location = location(table[slot]);
+                    SlabClass slab = classes[location >>> CHUNK_BITS];
+                    int chunk = location & CHUNK_MASK;
+
+                    if (!expiredOnly || isExpired(slab.pageOf(chunk).getLong(slab.offsetOf(chunk)),
+                            System.currentTimeMillis())) {
+                        delete(slot);
+                        release(slab, chunk);
+                        result = true;
+
+                        if (expiredOnly) {
+                            countEviction();
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            return result;
+        }
+
+        void clear() {
+            lock.writeLock().lock();
+            try {
+                int released = 0;
+                for (SlabClass slab : classes) {
+                    released += slab.pages.size();
+                    for (int chunk = 0; chunk < slab.states.length; chunk++) {
+                        if (slab.states[chunk] != SlabClass.FREE) {
+                            used.addAndGet(-entrySize(slab, chunk));
+                        }
+                    }
+                }
+                pages.addAndGet(-released);
+
+                classes = newClasses();
+                table = new long[16];
+                count = 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // below: guarded by write lock (find by read lock)
+
+        private int classOf(int total) {
+            int result = 0;
+            while ((MIN_CHUNK << result) < total) {
+                result++;
+            }
+            return result;
+        }
+
+        /**
+         * @return a chunk of given class or -1
+         */
+        private int allocate(int index) {
+            SlabClass slab = classes[index];
+
+            int result = slab.free.poll();
+            if (result < 0) {
+                if (reservePage()) {
+                    slab.addPage(ByteBuffer.allocateDirect(pageSize));
+                    result = slab.free.poll();
+                } else if (slab.chunks() > 0) {
+                    result = evict(slab);
+                } else {
+                    ByteBuffer page = stealPage();
+                    if (page != null) {
+                        slab.addPage(page);
+                        result = slab.free.poll();
+                    }
+                }
+            }
+
+            return result;
+        }
+
+        /**
+         * evicts an entry of given class by CLOCK
+         *
+         * @return freed chunk
+         */
+        private int evict(SlabClass slab) {
+            int chunks = slab.chunks();
+
+            while (true) {
+                int chunk = slab.hand;
+                slab.hand = (slab.hand + 1) % chunks;
+
+                byte state = slab.states[chunk];
+                if (state == SlabClass.REFERENCED) {
+                    // second chance
+                    slab.states[chunk] = SlabClass.USED;
+                } else if (state == SlabClass.USED) {
+                    unindex(slab, chunk);
+                    used.addAndGet(-entrySize(slab, chunk));
+                    slab.states[chunk] = SlabClass.FREE;
+                    countEviction();
+                    return chunk;
+                }
+            }
+        }
+
+        /**
+         * takes last page of the class with most pages, evicting its entries
+         *
+         * @return a page or null
+         */
+        private ByteBuffer stealPage() {
+            SlabClass victim = null;
+            for (SlabClass slab : classes) {
+                if (victim == null || slab.pages.size() > victim.pages.size()) {
+                    victim = slab;
+                }
+            }
+
+            ByteBuffer result = null;
+            if (victim != null && !victim.pages.isEmpty()) {
+                int last = victim.pages.size() - 1;
+                int from = last * victim.chunksPerPage;
+                for (int chunk = from; chunk < from + victim.chunksPerPage; chunk++) {
+                    if (victim.states[chunk] != SlabClass.FREE) {
+                        unindex(victim, chunk);
+                        used.addAndGet(-entrySize(victim, chunk));
+                        countEviction();
+                    }
+                }
+
+                result = victim.removeLastPage();
+            }
+
+            return result;
+        }
+
+        private void release(SlabClass slab, int chunk) {
+            used.addAndGet(-entrySize(slab, chunk));
+            slab.states[chunk] = SlabClass.FREE;
+            slab.free.offer(chunk);
+        }
+
+        private int entrySize(SlabClass slab, int chunk) {
+            ByteBuffer page = slab.pageOf(chunk);
+            int offset = slab.offsetOf(chunk);
+            return HEADER + page.getInt(offset + 8) + page.getInt(offset + 12);
+        }
+
+        /**
+         * removes index slot of an entry in given chunk
+         */
+        private void unindex(SlabClass slab, int chunk) {
+            ByteBuffer page = slab.pageOf(chunk);
+            int offset = slab.offsetOf(chunk);
+            byte[] key = new byte[page.getInt(offset + 8)];
+            ByteBuffer source = page.duplicate();
+            source.position(offset + HEADER);
+            source.get(key);
+
+            int slot = find(FrequencySketch.spread(new String(key, StandardCharsets.UTF_8).hashCode()), key);
+            if (slot >= 0) {
+                delete(slot);
+            }
+        }
+
+        /**
+         * @return index slot of key or -1
+         */
+        private int find(int hash, byte[] key) {
+            long[] current = table;
+            int mask = current.length - 1;
+
+            for (int slot = hash & mask; current[slot] != 0L; slot = (slot + 1) & mask) {
+                long entry = current[slot];
+                if ((int) (entry >>> 32) == hash && matches(location(entry), key)) {
+                    return slot;
+                }
+            }
+
+            return -1;
+        }
+
+        private boolean matches(int location, byte[] key) {
+            SlabClass slab = classes[location >>> CHUNK_BITS];
+            int chunk = location & CHUNK_MASK;
+            ByteBuffer page = slab.pageOf(chunk);
+            int offset = slab.offsetOf(chunk);
+
+            if (page.getInt(offset + 8) != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (page.get(offset + HEADER + i) != key[i]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void insert(int hash, int locationPlusOne) {
+            if ((count + 1) * 2 > table.length) {
+                resize();
+            }
+
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != 0L) {
+                slot = (slot + 1) & mask;
+            }
+
+            table[slot] = ((long) hash << 32) | (locationPlusOne & 0xffffffffL);
+            count++;
+        }
+
+        /**
+         * deletes a slot, shifting back following slots (no tombstones)
+         */
+        private void delete(int slot) {
+            int mask = table.length - 1;
+
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (table[next] != 0L) {
+                int ideal = (int) (table[next] >>> 32) & mask;
+                // can the entry at next move into hole?
+                if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                    table[hole] = table[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+
+            table[hole] = 0L;
+            count--;
+        }
+
+        private void resize() {
+            long[] old = table;
+            long[] resized = new long[old.length << 1];
+            int mask = resized.length - 1;
+
+            for (long entry : old) {
+                if (entry != 0L) {
+                    int slot = (int) (entry >>> 32) & mask;
+                    while (resized[slot] != 0L) {
+                        slot = (slot + 1) & mask;
+                    }
+                    resized[slot] = entry;
+                }
+            }
+
+            table = resized;
+        }
+
+        private int location(long entry) {
+            return (int) entry - 1;
+        }
+    }
+
+    /**
+     * Pages of a chunk size
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class SlabClass {
+        static final byte FREE = 0;
+        static final byte USED = 1;
+        static final byte REFERENCED = 2;
+
+        final int chunkSize;
+        final int chunksPerPage;
+        final List<ByteBuffer> pages = new ArrayList<>();
+        /**
+         * state of each chunk
+         */
+        byte[] states = new byte[0];
+        /**
+         * free chunks (FIFO, so that a freed chunk is reused as late as possible)
+         */
+        final IntQueue free = new IntQueue();
+        /**
+         * CLOCK hand
+         */
+        int hand = 0;
+
+        SlabClass(int chunkSize, int pageSize) {
+            this.chunkSize = chunkSize;
+            chunksPerPage = pageSize / chunkSize;
+        }
+
+        int chunks() {
+            return states.length;
+        }
+
+        ByteBuffer pageOf(int chunk) {
+            return pages.get(chunk / chunksPerPage);
+        }
+
+        int offsetOf(int chunk) {
+            return (chunk % chunksPerPage) * chunkSize;
+        }
+
+        void addPage(ByteBuffer page) {
+            int from = pages.size() * chunksPerPage;
+            pages.add(page);
+
+            byte[] grown = new byte[from + chunksPerPage];
+            System.arraycopy(states, 0, grown, 0, states.length);
+            states = grown;
+
+            for (int chunk = from; chunk < grown.length; chunk++) {
+                free.offer(chunk);
+            }
+        }
+
+        /**
+         * @return removed page (its entries must be unindexed already)
+         */
+        ByteBuffer removeLastPage() {
+            int from = (pages.size() - 1) * chunksPerPage;
+            ByteBuffer result = pages.remove(pages.size() - 1);
+
+            byte[] shrunk = new byte[from];
+            System.arraycopy(states, 0, shrunk, 0, from);
+            states = shrunk;
+            free.removeFrom(from);
+            if (hand >= from) {
+                hand = 0;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * FIFO of ints (no boxing)
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class IntQueue {
+        private int[] elements = new int[16];
+        private int head = 0;
+        private int size = 0;
+
+        void offer(int value) {
+            if (size == elements.length) {
+                int[] grown = new int[elements.length << 1];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = elements[(head + i) % elements.length];
+                }
+                elements = grown;
+                head = 0;
+            }
+
+            elements[(head + size) % elements.length] = value;
+            size++;
+        }
+
+        /**
+         * @return head or -1 if empty
+         */
+        int poll() {
+            int result = -1;
+
+            if (size > 0) {
+                result = elements[head];
+                head = (head + 1) % elements.length;
+                size--;
+            }
+
+            return result;
+        }
+
+        /**
+         * removes all values &gt;= given value
+         */
+        void removeFrom(int value) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int element = elements[(head + i) % elements.length];
+                if (element < value) {
+                    elements[(head + kept) % elements.length] = element;
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
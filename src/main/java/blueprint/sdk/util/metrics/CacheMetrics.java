@@ -0,0 +1,53 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of a cache: size, hits, misses and evictions
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class CacheMetrics {
+    private final Meter hits = new Meter();
+    private final Meter misses = new Meter();
+    private final Meter evictions = new Meter();
+
+    /**
+     * Constructor
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names
+     * @param size     supplies current number of entries
+     */
+    public CacheMetrics(MetricRegistry registry, String prefix, LongSupplier size) {
+        registry.gauge(prefix + ".size", size);
+        registry.register(prefix + ".hits", hits);
+        registry.register(prefix + ".misses", misses);
+        registry.register(prefix + ".evictions", evictions);
+    }
+
+    public void hit() {
+        hits.increase();
+    }
+
+    public void miss() {
+        misses.increase();
+    }
+
+    public void evicted() {
+        evictions.increase();
+    }
+}
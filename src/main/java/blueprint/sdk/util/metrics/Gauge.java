@@ -0,0 +1,52 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Instantaneous value, read on demand
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class Gauge implements Metric {
+    private final LongSupplier supplier;
+
+    /**
+     * Constructor
+     *
+     * @param supplier supplies current value
+     */
+    public Gauge(LongSupplier supplier) {
+        if (supplier == null) {
+            throw new NullPointerException("supplier is null");
+        }
+
+        this.supplier = supplier;
+    }
+
+    /**
+     * @return current value
+     */
+    public long value() {
+        return supplier.getAsLong();
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        return Collections.singletonMap("value", value());
+    }
+}
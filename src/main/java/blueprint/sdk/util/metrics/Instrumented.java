@@ -0,0 +1,30 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+/**
+ * A component which can publish it's metrics.<br>
+ * Metrics are not collected until registered, so that unregistered components pay (almost) nothing.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public interface Instrumented {
+    /**
+     * Starts collecting metrics and registers them
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names (ex: gcm.queue)
+     */
+    void registerMetrics(MetricRegistry registry, String prefix);
+}
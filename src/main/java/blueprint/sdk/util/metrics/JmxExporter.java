@@ -0,0 +1,134 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports a {@link MetricRegistry} as a read-only MBean.<br>
+ * Each value of each metric is an attribute named "metric name.value name" (ex: gcm.queue.depth.value).<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class JmxExporter implements DynamicMBean {
+    private final MetricRegistry registry;
+    private final ObjectName objectName;
+
+    /**
+     * Constructor
+     *
+     * @param registry registry to export
+     * @param name     name of MBean (ObjectName will be blueprint.sdk:type=Metrics,name=[name])
+     * @throws MalformedObjectNameException invalid name
+     */
+    public JmxExporter(MetricRegistry registry, String name) throws MalformedObjectNameException {
+        if (registry == null) {
+            throw new NullPointerException("registry is null");
+        }
+
+        this.registry = registry;
+        objectName = new ObjectName("blueprint.sdk:type=Metrics,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * registers to platform MBeanServer
+     *
+     * @throws JMException can't register
+     */
+    public void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    }
+
+    /**
+     * unregisters from platform MBeanServer
+     *
+     * @throws JMException can't unregister
+     */
+    public void unregister() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    /**
+     * @return ObjectName of this MBean
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        int index = attribute.lastIndexOf('.');
+        if (index > 0) {
+            Metric metric = registry.get(attribute.substring(0, index));
+            if (metric != null) {
+                Number value = metric.getValues().get(attribute.substring(index + 1));
+                if (value != null) {
+                    return value;
+                }
+            }
+        }
+
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList result = new AttributeList();
+
+        for (String attribute : attributes) {
+            try {
+                result.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ignored) {
+                // skip removed metrics
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("read only - " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+        throw new MBeanException(new UnsupportedOperationException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+
+        for (Map.Entry<String, Metric> entry : registry.getMetrics().entrySet()) {
+            for (Map.Entry<String, Number> value : entry.getValue().getValues().entrySet()) {
+                attributes.add(new MBeanAttributeInfo(entry.getKey() + "." + value.getKey(),
+                        value.getValue().getClass().getName(), entry.getValue().getClass().getSimpleName(),
+                        true, false, false));
+            }
+        }
+
+        return new MBeanInfo(getClass().getName(), "blueprint-sdk metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+}
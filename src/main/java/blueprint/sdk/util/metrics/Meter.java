@@ -0,0 +1,88 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import blueprint.sdk.util.Counter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts events and their rate (events per second).<br>
+ * Rate is measured over the last completed window, so that readers don't disturb each other.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class Meter extends Counter {
+    /**
+     * default rate window (msec)
+     */
+    public static final long DEFAULT_WINDOW = 5000;
+
+    private final long window;
+    private long windowStart = System.currentTimeMillis();
+    private long windowCount = 0;
+    private double rate = 0d;
+
+    public Meter() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param window rate window (msec)
+     */
+    public Meter(long window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("window must be positive - " + window);
+        }
+
+        this.window = window;
+    }
+
+    /**
+     * @return events per second of last completed window
+     */
+    public double rate() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long elapsed = now - windowStart;
+            if (elapsed >= window) {
+                long current = count();
+                rate = (current - windowCount) * 1000d / elapsed;
+                windowCount = current;
+                windowStart = now;
+            }
+
+            return rate;
+        }
+    }
+
+    @Override
+    public void reset() {
+        synchronized (this) {
+            super.reset();
+            windowStart = System.currentTimeMillis();
+            windowCount = 0;
+            rate = 0d;
+        }
+    }
+
+    @Override
+    public Map<String, Number> getValues() {
+        Map<String, Number> result = new LinkedHashMap<>();
+        result.put("count", count());
+        result.put("rate", rate());
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import java.util.Map;
+
+/**
+ * A metric which can be registered to {@link MetricRegistry}
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public interface Metric {
+    /**
+     * @return current values (key: value name without dots, ex: count, mean, p99)
+     */
+    Map<String, Number> getValues();
+}
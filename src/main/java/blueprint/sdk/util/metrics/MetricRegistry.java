@@ -0,0 +1,156 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import blueprint.sdk.util.Counter;
+import blueprint.sdk.util.Statistics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named metrics.<br>
+ * Names are dot separated (ex: gcm.queue.depth).<br>
+ * <br>
+ * Export with {@link JmxExporter} or {@link PeriodicReporter}.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class MetricRegistry {
+    /**
+     * Singleton
+     */
+    private static final MetricRegistry DEFAULT = new MetricRegistry();
+
+    private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @return default registry
+     */
+    public static MetricRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param name name of metric
+     * @return existing or new counter
+     */
+    public Counter counter(String name) {
+        return getOrAdd(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * @param name name of metric
+     * @return existing or new meter
+     */
+    public Meter meter(String name) {
+        return getOrAdd(name, Meter.class, Meter::new);
+    }
+
+    /**
+     * @param name name of metric
+     * @return existing or new histogram
+     */
+    public Statistics histogram(String name) {
+        return getOrAdd(name, Statistics.class, () -> new Statistics(true));
+    }
+
+    /**
+     * @param name name of metric
+     * @return existing or new timer
+     */
+    public Timer timer(String name) {
+        return getOrAdd(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Registers a gauge (replaces existing one)
+     *
+     * @param name     name of metric
+     * @param supplier supplies current value
+     * @return new gauge
+     */
+    public Gauge gauge(String name, LongSupplier supplier) {
+        Gauge result = new Gauge(supplier);
+        register(name, result);
+        return result;
+    }
+
+    /**
+     * Registers a metric (replaces existing one)
+     *
+     * @param name   name of metric
+     * @param metric metric to register
+     */
+    public void register(String name, Metric metric) {
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+        if (metric == null) {
+            throw new NullPointerException("metric is null");
+        }
+
+        metrics.put(name, metric);
+    }
+
+    /**
+     * @param name name of metric
+     * @return removed metric or null
+     */
+    public Metric remove(String name) {
+        return metrics.remove(name);
+    }
+
+    /**
+     * removes all metrics of which names start with given prefix
+     *
+     * @param prefix prefix of names
+     */
+    public void removeAll(String prefix) {
+        metrics.keySet().removeIf(name -> name.equals(prefix) || name.startsWith(prefix + "."));
+    }
+
+    /**
+     * @param name name of metric
+     * @return metric or null
+     */
+    public Metric get(String name) {
+        return metrics.get(name);
+    }
+
+    /**
+     * @return all metrics, sorted by name
+     */
+    public SortedMap<String, Metric> getMetrics() {
+        return new TreeMap<>(metrics);
+    }
+
+    private <M extends Metric> M getOrAdd(String name, Class<M> type, Supplier<M> factory) {
+        if (name == null) {
+            throw new NullPointerException("name is null");
+        }
+
+        Metric result = metrics.computeIfAbsent(name, key -> factory.get());
+        if (result.getClass() != type) {
+            throw new IllegalArgumentException(name + " is already registered as " + result.getClass().getName());
+        }
+
+        return type.cast(result);
+    }
+}
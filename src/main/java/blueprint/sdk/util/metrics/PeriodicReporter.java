@@ -0,0 +1,86 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calls {@link Reporter}s periodically
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class PeriodicReporter extends TerminatableThread {
+    private static final Logger L = LoggerFactory.getLogger(PeriodicReporter.class);
+
+    private final MetricRegistry registry;
+    private final long interval;
+    private final List<Reporter> reporters;
+
+    /**
+     * Constructor
+     *
+     * @param registry  registry to report
+     * @param interval  report interval (msec)
+     * @param reporters reporters
+     */
+    public PeriodicReporter(MetricRegistry registry, long interval, Reporter... reporters) {
+        if (registry == null) {
+            throw new NullPointerException("registry is null");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive - " + interval);
+        }
+
+        this.registry = registry;
+        this.interval = interval;
+        this.reporters = Arrays.asList(reporters);
+
+        setName(getClass().getSimpleName() + "#" + hashCode());
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        running = true;
+
+        while (running) {
+            try {
+                sleep(interval);
+            } catch (InterruptedException ignored) {
+            }
+
+            report();
+        }
+
+        terminated = true;
+    }
+
+    /**
+     * reports current metrics to all reporters
+     */
+    public void report() {
+        for (Reporter reporter : reporters) {
+            try {
+                reporter.report(registry.getMetrics());
+            } catch (Exception e) {
+                L.warn("Can't report metrics - " + reporter, e);
+            }
+        }
+    }
+}
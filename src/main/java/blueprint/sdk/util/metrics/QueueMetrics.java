@@ -0,0 +1,62 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of a queue: depth, enqueue/dequeue rates and wait time (enqueue to dequeue)
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class QueueMetrics {
+    private final Meter enqueued = new Meter();
+    private final Meter dequeued = new Meter();
+    private final Timer waitTime = new Timer();
+
+    /**
+     * Constructor
+     *
+     * @param registry target registry
+     * @param prefix   prefix of metric names
+     * @param depth    supplies current depth of queue
+     */
+    public QueueMetrics(MetricRegistry registry, String prefix, LongSupplier depth) {
+        registry.gauge(prefix + ".depth", depth);
+        registry.register(prefix + ".enqueued", enqueued);
+        registry.register(prefix + ".dequeued", dequeued);
+        registry.register(prefix + ".waitTime", waitTime);
+    }
+
+    /**
+     * @param count number of enqueued elements
+     */
+    public void enqueued(int count) {
+        enqueued.add(count);
+    }
+
+    /**
+     * @param count number of dequeued elements
+     */
+    public void dequeued(int count) {
+        dequeued.add(count);
+    }
+
+    /**
+     * @param nanos wait time of an element (nano seconds)
+     */
+    public void waitTime(long nanos) {
+        waitTime.add(nanos);
+    }
+}
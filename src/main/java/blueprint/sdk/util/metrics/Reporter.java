@@ -0,0 +1,29 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import java.util.SortedMap;
+
+/**
+ * Publishes metrics somewhere (log, file, monitoring system, ...)
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ * @see PeriodicReporter
+ */
+public interface Reporter {
+    /**
+     * @param metrics current metrics (key: name)
+     */
+    void report(SortedMap<String, Metric> metrics);
+}
@@ -0,0 +1,53 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Writes metrics to slf4j logger (a line per metric)
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class Slf4jReporter implements Reporter {
+    private final Logger logger;
+
+    public Slf4jReporter() {
+        this(LoggerFactory.getLogger(Slf4jReporter.class));
+    }
+
+    /**
+     * @param logger target logger
+     */
+    public Slf4jReporter(Logger logger) {
+        if (logger == null) {
+            throw new NullPointerException("logger is null");
+        }
+
+        this.logger = logger;
+    }
+
+    @Override
+    public void report(SortedMap<String, Metric> metrics) {
+        if (logger.isInfoEnabled()) {
+            for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+                logger.info("{} {}", entry.getKey(), entry.getValue().getValues());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+package blueprint.sdk.util.metrics;
+
+import blueprint.sdk.util.Statistics;
+
+/**
+ * Histogram of durations (nano seconds)<br>
+ * <pre>
+ * long start = timer.start();
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop(start);
+ * }
+ * </pre>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class Timer extends Statistics {
+    public Timer() {
+        super(true);
+    }
+
+    /**
+     * @return start time to pass to {@link Timer#stop(long)}
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * records elapsed time since start
+     *
+     * @param start return value of {@link Timer#start()}
+     * @return elapsed time (nano seconds)
+     */
+    public long stop(long start) {
+        long result = System.nanoTime() - start;
+        add(result);
+        return result;
+    }
+}
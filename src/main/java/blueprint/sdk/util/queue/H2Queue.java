@@ -20,6 +20,7 @@ import org.h2.api.ErrorCode;
 import org.h2.jdbcx.JdbcDataSource;
 
 import java.sql.*;
+import java.util.Collection;
 
 /**
  * H2 based AbstractJdbcQueue implementation (example).
@@ -222,6 +223,19 @@ public class H2Queue extends JdbcQueue {
         }
     }
 
+    @Override
+    protected void deleteAll(Collection<? extends Element> elements) throws SQLException {
+        checkConnection();
+
+        synchronized (deleteStmt) {
+            for (Element element : elements) {
+                deleteStmt.setString(1, element.uuid);
+                deleteStmt.addBatch();
+            }
+            deleteStmt.executeBatch();
+        }
+    }
+
     /**
      * @return the schema
      */
@@ -15,7 +15,10 @@ package blueprint.sdk.util.queue;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -104,6 +107,7 @@ public abstract class JdbcQueue extends MessageQueue {
             if (persistent) {
                 insert(item);
             }
+            enqueued(item);
             synchronized (queue) {
                 queue.push(item);
             }
@@ -129,6 +133,7 @@ public abstract class JdbcQueue extends MessageQueue {
                         delete(element);
                     }
 
+                    dequeued(element);
                     result = element.content;
                 } catch (SQLException e) {
                     synchronized (queue) {
@@ -145,6 +150,56 @@ public abstract class JdbcQueue extends MessageQueue {
         return result;
     }
 
+    /**
+     * Moves available elements to given collection. (never blocks)<br>
+     * Persistent elements are deleted from table at once.<br>
+     *
+     * @param target collection to transfer elements into
+     * @param max    maximum number of elements to transfer
+     * @return number of transferred elements
+     * @throws JdbcQueueException Can't delete from table. Elements are restored to queue.
+     */
+    @Override
+    public int drainTo(Collection<? super String> target, int max) throws JdbcQueueException {
+        List<JdbcElement> elements = new ArrayList<>();
+        synchronized (queue) {
+            while (elements.size() < max && !queue.isEmpty()) {
+                elements.add(queue.pop());
+            }
+        }
+
+        if (!elements.isEmpty()) {
+            List<Element> persistents = new ArrayList<>(elements.size());
+            for (JdbcElement element : elements) {
+                if (element.persistent) {
+                    persistents.add(element);
+                }
+            }
+
+            try {
+                if (!persistents.isEmpty()) {
+                    deleteAll(persistents);
+                }
+            } catch (SQLException e) {
+                // restore original order
+                synchronized (queue) {
+                    for (int i = elements.size() - 1; i >= 0; i--) {
+                        queue.push(elements.get(i));
+                    }
+                }
+                notifyWaiter();
+                throw new JdbcQueueException(e);
+            }
+
+            for (JdbcElement element : elements) {
+                dequeued(element);
+                target.add(element.content);
+            }
+        }
+
+        return elements.size();
+    }
+
     /**
      * Load queue contents from DBMS
      *
@@ -181,6 +236,19 @@ public abstract class JdbcQueue extends MessageQueue {
      * @throws SQLException Can't delete
      */
     protected abstract void delete(Element element) throws SQLException;
+
+    /**
+     * Delete queue elements from table.<br>
+     * Override to use batch update.<br>
+     *
+     * @param elements elements to delete
+     * @throws SQLException Can't delete
+     */
+    protected void deleteAll(Collection<? extends Element> elements) throws SQLException {
+        for (Element element : elements) {
+            delete(element);
+        }
+    }
 }
 
 /**
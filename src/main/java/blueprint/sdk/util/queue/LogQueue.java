@@ -0,0 +1,738 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.util.queue;
+
+import blueprint.sdk.util.jvm.shutdown.TerminatableThread;
+import blueprint.sdk.util.metrics.MetricRegistry;
+import blueprint.sdk.util.metrics.QueueMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * File based persistent Queue (alternative to {@link H2Queue}).<br>
+ * <br>
+ * Elements are appended to memory-mapped segment files as CRC-checked records (length + 1, CRC32, UTF-8 contents).
+ * A segment is named after it's position in the log, and deleted once all of it's records are consumed.
+ * Position of consumer is kept in a memory-mapped checkpoint file, updated on every pop.<br>
+ * Mapped pages survive a crash of the process. For a crash of the OS, segments and checkpoint are forced to the disk
+ * every sync interval, or on every push (group commit with concurrent pushers) if sync interval is 0.
+ * With sync interval 0, checkpoint of pops is forced along with next push.<br>
+ * On {@link LogQueue#init()}, records after checkpoint are validated and a torn tail is discarded.<br>
+ * <br>
+ * Elements are retrieved in order of push (FIFO).<br>
+ * Must call {@link LogQueue#init()} before use.<br>
+ * <b>Thread Safe</b><br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public class LogQueue extends MessageQueue {
+    /**
+     * default size of a segment (64MB)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /**
+     * default sync interval (msec)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static final long DEFAULT_SYNC_INTERVAL = 100;
+
+    private static final Logger L = LoggerFactory.getLogger(LogQueue.class);
+
+    /**
+     * record header: length + 1(int), CRC32(int)<br>
+     * Length is stored as length + 1, so that an empty element is not mistaken for zero filled end of records.<br>
+     */
+    private static final int HEADER = 8;
+    /**
+     * length of a record which marks end of a segment
+     */
+    private static final int ROLLED = -1;
+    private static final String SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+
+    /**
+     * directory of segments and checkpoint
+     */
+    private final File dir;
+    private final int segmentSize;
+    /**
+     * sync interval (msec, 0 = sync on every push)
+     */
+    private final long syncInterval;
+
+    /**
+     * segments by base position
+     */
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    /**
+     * number of elements
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    /**
+     * segment to append (guarded by writeLock)
+     */
+    private Segment writeSegment;
+    /**
+     * end of written records (published after each push)
+     */
+    private volatile long writePosition;
+
+    private final ReentrantLock readLock = new ReentrantLock();
+    /**
+     * segment to read (guarded by readLock)
+     */
+    private Segment readSegment;
+    /**
+     * position of next record to read (guarded by readLock)
+     */
+    private long readPosition;
+    /**
+     * consumer position and it's CRC32
+     */
+    private MappedByteBuffer checkpoint;
+
+    private final Object syncLock = new Object();
+    /**
+     * records before this are forced to the disk
+     */
+    private volatile long forced;
+    /**
+     * segments from this are not forced yet (guarded by syncLock)
+     */
+    private long forcedBase;
+    /**
+     * checkpoint is changed since last force
+     */
+    private volatile boolean checkpointDirty = false;
+
+    /**
+     * Forces changes to the disk periodically
+     */
+    private volatile TerminatableThread syncer;
+
+    /**
+     * null until {@link LogQueue#registerMetrics(MetricRegistry, String)}
+     */
+    private volatile QueueMetrics metrics = null;
+
+    /**
+     * Constructor (uses default segment size and sync interval)
+     *
+     * @param dir directory of segments and checkpoint
+     */
+    public LogQueue(File dir) {
+        this(dir, DEFAULT_SEGMENT_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param dir          directory of segments and checkpoint
+     * @param segmentSize  size of a segment file (maximum size of an element)
+     * @param syncInterval sync interval in msec (0 = sync on every push)
+     */
+    public LogQueue(File dir, int segmentSize, long syncInterval) {
+        super();
+
+        if (dir == null) {
+            throw new NullPointerException("dir is null");
+        }
+        if (segmentSize <= HEADER * 2) {
+            throw new IllegalArgumentException("segmentSize is too small - " + segmentSize);
+        }
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException("syncInterval must be 0 or positive - " + syncInterval);
+        }
+
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+    }
+
+    /**
+     * open segments and recover from checkpoint
+     *
+     * @throws IOException Can't open or recover
+     */
+    public void init() throws IOException {
+        writeLock.lock();
+        readLock.lock();
+        try {
+            if (checkpoint != null) {
+                throw new IllegalStateException("already initialized");
+            }
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Can't create directory - " + dir);
+            }
+
+            File[] files = dir.listFiles((parent, name) -> name.endsWith(SUFFIX));
+            if (files != null) {
+                for (File file : files) {
+                    if (file.length() <= HEADER * 2) {
+                        // created, but never written
+                        if (!file.delete()) {
+                            throw new IOException("Can't delete empty segment - " + file);
+                        }
+                        continue;
+                    }
+
+                    String name = file.getName();
+                    long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    segments.put(base, new Segment(base, file, 0));
+                }
+            }
+
+            File checkpointFile = new File(dir, CHECKPOINT);
+            boolean exists = checkpointFile.exists();
+            checkpoint = map(checkpointFile, 12);
+            long position = checkpoint.getLong(0);
+            boolean valid = exists && checkpoint.getInt(8) == check(position);
+
+            if (segments.isEmpty()) {
+                // positions never go back
+                newSegment(valid ? position : 0L);
+            }
+            if (!valid || segments.floorKey(position) == null) {
+                if (exists) {
+                    L.warn("invalid checkpoint. reads from the first segment - " + dir);
+                }
+                position = segments.firstKey();
+            }
+
+            // consumed before crash
+            while (segments.firstKey() < segments.floorKey(position)) {
+                delete(segments.firstEntry().getValue());
+            }
+
+            readSegment = segments.floorEntry(position).getValue();
+            readPosition = position;
+            recover();
+
+            forced = writePosition;
+            forcedBase = writeSegment.base;
+            writeCheckpoint();
+        } finally {
+            readLock.unlock();
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * finds valid records after read position and end of them (guarded by both locks)
+     */
+    private void recover() {
+        Segment segment = readSegment;
+        int offset = (int) (readPosition - segment.base);
+        int records = 0;
+
+        while (true) {
+            byte[] contents = record(segment, offset);
+            if (contents != null) {
+                records++;
+                offset += HEADER + contents.length;
+            } else {
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.base);
+                if (next == null) {
+                    break;
+                }
+                segment = next.getValue();
+                offset = 0;
+            }
+        }
+
+        // discard torn tail, so that it can't be mistaken for records later
+        ByteBuffer buffer = segment.writer;
+        for (int i = offset; i < segment.capacity; i++) {
+            if (buffer.get(i) != 0) {
+                L.warn("discarding invalid records - " + segment.file + " from " + offset);
+                buffer.position(offset);
+                while (buffer.hasRemaining()) {
+                    buffer.put((byte) 0);
+                }
+                break;
+            }
+        }
+
+        writeSegment = segment;
+        writePosition = segment.base + offset;
+        count.set(records);
+    }
+
+    /**
+     * reads a record (guarded by readLock)
+     *
+     * @param segment segment
+     * @param offset  offset of a record
+     * @return contents of valid record or null (end of records in the segment)
+     */
+    private static byte[] record(Segment segment, int offset) {
+        byte[] result = null;
+
+        if (offset + HEADER <= segment.capacity) {
+            ByteBuffer buffer = segment.reader;
+            int length = buffer.getInt(offset) - 1;
+            if (length >= 0 && offset + HEADER + length <= segment.capacity) {
+                byte[] contents = new byte[length];
+                buffer.position(offset + HEADER);
+                buffer.get(contents);
+                if (buffer.getInt(offset + 4) == crc(contents)) {
+                    result = contents;
+                } else {
+                    L.error("corrupted record - " + segment.file + " at " + offset);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void push(String element) {
+        if (element == null) {
+            throw new NullPointerException("Can't push null");
+        }
+
+        byte[] contents = element.getBytes(StandardCharsets.UTF_8);
+        if (contents.length > segmentSize - HEADER) {
+            throw new IllegalArgumentException("element is larger than a segment - " + contents.length + " bytes");
+        }
+        int checksum = crc(contents);
+
+        long end;
+        writeLock.lock();
+        try {
+            checkInitialized();
+
+            int offset = (int) (writePosition - writeSegment.base);
+            if (offset + HEADER + contents.length > writeSegment.capacity) {
+                roll(offset);
+                offset = 0;
+            }
+
+            ByteBuffer buffer = writeSegment.writer;
+            buffer.position(offset + HEADER);
+            buffer.put(contents);
+            buffer.putInt(offset + 4, checksum);
+            // length goes last, a record without it is not a record
+            buffer.putInt(offset, contents.length + 1);
+
+            count.incrementAndGet();
+            end = writeSegment.base + offset + HEADER + contents.length;
+            writePosition = end;
+        } finally {
+            writeLock.unlock();
+        }
+
+        QueueMetrics current = metrics;
+        if (current != null) {
+            current.enqueued(1);
+        }
+        notifyWaiter();
+
+        if (syncInterval == 0) {
+            sync(end);
+        } else {
+            checkSyncer();
+        }
+    }
+
+    /**
+     * marks end of current segment and starts a new one (guarded by writeLock)
+     *
+     * @param offset end of records in current segment
+     */
+    private void roll(int offset) {
+        if (offset + 4 <= writeSegment.capacity) {
+            writeSegment.writer.putInt(offset, ROLLED);
+        }
+
+        try {
+            writeSegment = newSegment(writeSegment.base + writeSegment.capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create a segment - " + dir, e);
+        }
+        writePosition = writeSegment.base;
+    }
+
+    /**
+     * Retrieves an element from queue.
+     *
+     * @return queue element or null(queue is empty)
+     */
+    @Override
+    public String pop() {
+        String result;
+
+        readLock.lock();
+        try {
+            checkInitialized();
+
+            result = next();
+            if (result != null) {
+                writeCheckpoint();
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        if (result != null) {
+            dequeued(1);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int max) {
+        int result = 0;
+
+        readLock.lock();
+        try {
+            checkInitialized();
+
+            String element;
+            while (result < max && (element = next()) != null) {
+                target.add(element);
+                result++;
+            }
+
+            if (result > 0) {
+                writeCheckpoint();
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        dequeued(result);
+
+        return result;
+    }
+
+    /**
+     * reads next record (guarded by readLock)
+     *
+     * @return next element or null (empty)
+     */
+    private String next() {
+        String result = null;
+
+        while (result == null && readPosition != writePosition) {
+            byte[] contents = record(readSegment, (int) (readPosition - readSegment.base));
+
+            if (contents != null) {
+                readPosition += HEADER + contents.length;
+                result = new String(contents, StandardCharsets.UTF_8);
+            } else {
+                // end of segment (writer is on next one), or rest of segment is corrupted (same as recovery)
+                Map.Entry<Long, Segment> next = segments.higherEntry(readSegment.base);
+                if (next == null) {
+                    L.error("records are lost - " + readSegment.file);
+                    readPosition = writePosition;
+                    count.set(0);
+                } else {
+                    Segment consumed = readSegment;
+                    readSegment = next.getValue();
+                    readPosition = readSegment.base;
+                    delete(consumed);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @param dequeued number of retrieved elements
+     */
+    private void dequeued(int dequeued) {
+        if (dequeued > 0) {
+            count.addAndGet(-dequeued);
+
+            QueueMetrics current = metrics;
+            if (current != null) {
+                current.dequeued(dequeued);
+            }
+
+            if (syncInterval > 0) {
+                // checkpoint is forced by syncer, even without pushes
+                checkSyncer();
+            }
+        }
+    }
+
+    /**
+     * Forces changes up to given position to the disk. Concurrent callers share a force.
+     *
+     * @param end position to force
+     */
+    private void sync(long end) {
+        if (forced < end || checkpointDirty) {
+            synchronized (syncLock) {
+                if (forced < end) {
+                    long target = writePosition;
+                    Map.Entry<Long, Segment> last = segments.lastEntry();
+
+                    for (Segment segment : segments.tailMap(forcedBase, true).values()) {
+                        segment.buffer.force();
+                    }
+                    // cleared first, so that a change during force is forced next time
+                    checkpointDirty = false;
+                    checkpoint.force();
+
+                    if (last != null) {
+                        forcedBase = last.getKey();
+                    }
+                    forced = target;
+                } else if (checkpointDirty) {
+                    // pops only
+                    checkpointDirty = false;
+                    checkpoint.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * starts syncer, if not running
+     */
+    private void checkSyncer() {
+        TerminatableThread current = syncer;
+        if (current == null || current.isTerminated()) {
+            synchronized (syncLock) {
+                if (syncer == null || syncer.isTerminated()) {
+                    syncer = new TerminatableThread() {
+                        @Override
+                        public void run() {
+                            running = true;
+
+                            while (running) {
+                                try {
+                                    sleep(syncInterval);
+                                } catch (InterruptedException ignored) {
+                                }
+
+                                sync(writePosition);
+                            }
+
+                            terminated = true;
+                        }
+                    };
+                    syncer.setName("LogQueue-syncer-" + hashCode());
+                    syncer.setDaemon(true);
+                    syncer.start();
+                }
+            }
+        }
+    }
+
+    /**
+     * writes read position to checkpoint (guarded by readLock)
+     */
+    private void writeCheckpoint() {
+        checkpoint.putLong(0, readPosition);
+        checkpoint.putInt(8, check(readPosition));
+        checkpointDirty = true;
+    }
+
+    /**
+     * Removes all elements and segments
+     */
+    @Override
+    public void clear() {
+        writeLock.lock();
+        readLock.lock();
+        try {
+            if (checkpoint != null) {
+                long base = writeSegment.base + writeSegment.capacity;
+                for (Segment segment : segments.values()) {
+                    delete(segment);
+                }
+
+                // positions never go back, so that an old checkpoint can't point to new records
+                writeSegment = newSegment(base);
+                writePosition = base;
+                readSegment = writeSegment;
+                readPosition = base;
+                writeCheckpoint();
+                count.set(0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create a segment - " + dir, e);
+        } finally {
+            readLock.unlock();
+            writeLock.unlock();
+        }
+
+        stopSyncer();
+    }
+
+    /**
+     * Forces all changes to the disk and stops syncer.<br>
+     * Can be used again (syncer restarts on next push).<br>
+     */
+    public void dispose() {
+        stopSyncer();
+
+        if (checkpoint != null) {
+            sync(Long.MAX_VALUE);
+        }
+    }
+
+    private void stopSyncer() {
+        TerminatableThread current = syncer;
+        if (current != null && !current.isTerminated()) {
+            current.terminate();
+            current.interrupt();
+        }
+    }
+
+    @Override
+    public int size() {
+        // may go below 0 after corrupted records are skipped
+        return Math.max(count.get(), 0);
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        metrics = new QueueMetrics(registry, prefix, this::size);
+    }
+
+    private void checkInitialized() {
+        if (checkpoint == null) {
+            throw new IllegalStateException("not initialized - call init() first");
+        }
+    }
+
+    /**
+     * creates and maps a new segment
+     *
+     * @param base position of first record
+     * @return new segment
+     * @throws IOException Can't create
+     */
+    private Segment newSegment(long base) throws IOException {
+        Segment result = new Segment(base, new File(dir, String.format("%020d", base) + SUFFIX), segmentSize);
+        segments.put(base, result);
+        return result;
+    }
+
+    /**
+     * removes a consumed segment
+     *
+     * @param segment segment to remove
+     */
+    private void delete(Segment segment) {
+        segments.remove(segment.base);
+        // mapping is released by GC
+        if (!segment.file.delete()) {
+            L.warn("Can't delete consumed segment - " + segment.file);
+        }
+    }
+
+    /**
+     * @param file file to map
+     * @param size size to map (0 = current size)
+     * @return mapped buffer
+     * @throws IOException Can't map
+     */
+    private static MappedByteBuffer map(File file, int size) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            if (size > 0 && raf.length() < size) {
+                raf.setLength(size);
+            }
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size > 0 ? size : raf.length());
+        } finally {
+            // mapping stays valid after close
+            raf.close();
+        }
+    }
+
+    private static int crc(byte[] contents) {
+        CRC32 crc = new CRC32();
+        crc.update(contents, 0, contents.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @param position read position
+     * @return CRC32 of position
+     */
+    private static int check(long position) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < 8; i++) {
+            crc.update((int) (position >>> (i * 8)));
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A mapped segment file
+     *
+     * @author lempel@gmail.com
+     * @since 2026. 10. 17.
+     */
+    private static final class Segment {
+        /**
+         * position of first record
+         */
+        final long base;
+        final File file;
+        final int capacity;
+        final MappedByteBuffer buffer;
+        /**
+         * view for writer (guarded by writeLock)
+         */
+        final ByteBuffer writer;
+        /**
+         * view for reader (guarded by readLock)
+         */
+        final ByteBuffer reader;
+
+        /**
+         * @param base position of first record
+         * @param file segment file
+         * @param size size of new segment (0 = existing)
+         * @throws IOException Can't map
+         */
+        Segment(long base, File file, int size) throws IOException {
+            this.base = base;
+            this.file = file;
+
+            buffer = map(file, size);
+            capacity = buffer.capacity();
+            writer = buffer.duplicate();
+            reader = buffer.duplicate();
+        }
+    }
+}
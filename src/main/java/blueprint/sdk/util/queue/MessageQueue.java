@@ -13,7 +13,14 @@
 
 package blueprint.sdk.util.queue;
 
+import blueprint.sdk.util.metrics.Instrumented;
+import blueprint.sdk.util.metrics.MetricRegistry;
+import blueprint.sdk.util.metrics.QueueMetrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -23,7 +30,7 @@ import java.util.UUID;
  * @author lempel@gmail.com
  * @since 2013. 9. 4.
  */
-public class MessageQueue implements Queue<String> {
+public class MessageQueue implements Queue<String>, Instrumented {
     /**
      * actual queue
      */
@@ -34,6 +41,11 @@ public class MessageQueue implements Queue<String> {
      */
     private final LinkedList<Thread> waiters = new LinkedList<>();
 
+    /**
+     * null until {@link MessageQueue#registerMetrics(MetricRegistry, String)}
+     */
+    private volatile QueueMetrics metrics = null;
+
     @Override
     public void clear() {
         synchronized (queue) {
@@ -50,6 +62,7 @@ public class MessageQueue implements Queue<String> {
         Element item = new Element();
         item.uuid = UUID.randomUUID().toString();
         item.content = element;
+        enqueued(item);
 
         synchronized (queue) {
             queue.push(item);
@@ -73,6 +86,7 @@ public class MessageQueue implements Queue<String> {
             }
 
             if (element != null) {
+                dequeued(element);
                 result = element.content;
             }
         } catch (NoSuchElementException ignored) {
@@ -106,6 +120,85 @@ public class MessageQueue implements Queue<String> {
         return result;
     }
 
+    @SuppressWarnings("SynchronizationOnLocalVariableOrMethodParameter")
+    @Override
+    public List<String> take(int max, long timeout) {
+        List<String> result = new ArrayList<>();
+
+        if (drainTo(result, max) == 0 && max > 0 && timeout > 0) {
+            Thread current = Thread.currentThread();
+            synchronized (waiters) {
+                waiters.add(current);
+            }
+
+            synchronized (current) {
+                try {
+                    current.wait(timeout);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            // timed out, not notified
+            synchronized (waiters) {
+                waiters.remove(current);
+            }
+
+            drainTo(result, max);
+        }
+
+        return result;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> target, int max) {
+        int result = 0;
+
+        synchronized (queue) {
+            while (result < max && !queue.isEmpty()) {
+                Element element = queue.pop();
+                dequeued(element);
+                target.add(element.content);
+                result++;
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void registerMetrics(MetricRegistry registry, String prefix) {
+        metrics = new QueueMetrics(registry, prefix, this::size);
+    }
+
+    /**
+     * stamps and counts an element (metrics)
+     *
+     * @param element element to push
+     */
+    void enqueued(Element element) {
+        QueueMetrics current = metrics;
+        if (current != null) {
+            element.stamp = System.nanoTime();
+            current.enqueued(1);
+        }
+    }
+
+    /**
+     * counts an element and records it's wait time (metrics)
+     *
+     * @param element popped element
+     */
+    void dequeued(Element element) {
+        QueueMetrics current = metrics;
+        if (current != null) {
+            current.dequeued(1);
+            if (element.stamp != 0L) {
+                current.waitTime(System.nanoTime() - element.stamp);
+            }
+        }
+    }
+
     /**
      * Wake up a blocked thread
      */
@@ -166,4 +259,8 @@ class Element {
      * actual queue content
      */
     public String content;
+    /**
+     * enqueue timestamp (System.nanoTime(), 0 = not stamped)
+     */
+    transient long stamp;
 }
\ No newline at end of file
@@ -13,6 +13,11 @@
 
 package blueprint.sdk.util.queue;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * General Interface for Queue
  *
@@ -27,6 +32,76 @@ public interface Queue<T> {
      */
     T take();
 
+    /**
+     * Retrieves up to max elements from queue.<br>
+     * Blocks until at least one element is available or timeout expires.<br>
+     * <br>
+     * Default implementation polls with {@link Queue#drainTo(Collection, int)} every 10 msec at most,
+     * so new elements may be picked up 10 msec late. Implementations should override this.<br>
+     *
+     * @param max     maximum number of elements to retrieve
+     * @param timeout maximum time to wait (msec)
+     * @return retrieved elements (empty if timed out or interrupted)
+     */
+    default List<T> take(int max, long timeout) {
+        List<T> result = new ArrayList<>();
+
+        if (max > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+            while (drainTo(result, max) == 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    break;
+                }
+
+                try {
+                    Thread.sleep(Math.min(remaining, 10L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves available elements to given collection. (doesn't wait for new elements)<br>
+     * <br>
+     * Default implementation takes elements with {@link Queue#take()} while {@link Queue#size()} is positive,
+     * so it may block if other threads retrieve elements concurrently.
+     * Implementations should override this to never block.<br>
+     *
+     * @param target collection to transfer elements into
+     * @param max    maximum number of elements to transfer
+     * @return number of transferred elements
+     */
+    default int drainTo(Collection<? super T> target, int max) {
+        int result = 0;
+
+        while (result < max && size() > 0) {
+            T element = take();
+            if (element == null) {
+                break;
+            }
+
+            target.add(element);
+            result++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Default implementation returns false (not disposable).<br>
+     *
+     * @return true if disposed ({@link Queue#take()} returns null without blocking once empty)
+     */
+    default boolean isDisposed() {
+        return false;
+    }
+
     /**
      * Push an element to queue
      *
@@ -0,0 +1,54 @@
+/*
+ License:
+
+ blueprint-sdk is licensed under the terms of Eclipse Public License(EPL) v1.0
+ (http://www.eclipse.org/legal/epl-v10.html)
+
+
+ Distribution:
+
+ Maven Central - https://search.maven.org/artifact/io.github.lempel/blueprint-sdk
+ MVN Repository - https://mvnrepository.com/artifact/io.github.lempel/blueprint-sdk
+ */
+
+package blueprint.sdk.core.concurrent;
+
+/**
+ * Creates Threads for Workers.<br>
+ * <br>
+ * This is the Java 21+ version (Multi-Release JAR). Virtual threads are supported.<br>
+ *
+ * @author lempel@gmail.com
+ * @since 2026. 10. 17.
+ */
+public final class Threads {
+    private Threads() {
+    }
+
+    /**
+     * @return true if current runtime supports virtual threads
+     */
+    public static boolean isVirtualSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an unstarted Thread
+     *
+     * @param task    task to run
+     * @param name    name of thread
+     * @param virtual true: virtual thread, false: platform daemon thread
+     * @return new Thread
+     */
+    public static Thread newThread(Runnable task, String name, boolean virtual) {
+        Thread result;
+
+        if (virtual) {
+            result = Thread.ofVirtual().name(name).unstarted(task);
+        } else {
+            result = Thread.ofPlatform().name(name).daemon(true).unstarted(task);
+        }
+
+        return result;
+    }
+}